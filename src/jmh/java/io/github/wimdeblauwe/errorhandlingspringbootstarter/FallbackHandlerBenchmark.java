@@ -0,0 +1,68 @@
+package io.github.wimdeblauwe.errorhandlingspringbootstarter;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link DefaultFallbackApiExceptionHandler} for annotated exceptions,
+ * with and without {@link ResponseErrorProperty} members.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FallbackHandlerBenchmark {
+
+    private DefaultFallbackApiExceptionHandler handler;
+    private Throwable annotatedException;
+    private Throwable exceptionWithProperties;
+
+    @Setup
+    public void setup() {
+        handler = new DefaultFallbackApiExceptionHandler(new ErrorHandlingProperties());
+        annotatedException = new UserNotFoundException();
+        exceptionWithProperties = new UserAlreadyExistsException("user-1", "user@example.com");
+    }
+
+    @Benchmark
+    public ApiErrorResponse annotatedException() {
+        return handler.handle(annotatedException);
+    }
+
+    @Benchmark
+    public ApiErrorResponse annotatedExceptionWithResponseErrorProperties() {
+        return handler.handle(exceptionWithProperties);
+    }
+
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    @ResponseErrorCode("USER_NOT_FOUND")
+    static class UserNotFoundException extends RuntimeException {
+        UserNotFoundException() {
+            super("Could not find user");
+        }
+    }
+
+    @ResponseStatus(HttpStatus.CONFLICT)
+    static class UserAlreadyExistsException extends RuntimeException {
+        @ResponseErrorProperty
+        private final String userId;
+        private final String email;
+
+        UserAlreadyExistsException(String userId,
+                                   String email) {
+            super("User already exists");
+            this.userId = userId;
+            this.email = email;
+        }
+
+        @ResponseErrorProperty
+        public String getEmail() {
+            return email;
+        }
+    }
+}
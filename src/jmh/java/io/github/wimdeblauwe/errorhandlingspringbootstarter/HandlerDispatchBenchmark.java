@@ -0,0 +1,97 @@
+package io.github.wimdeblauwe.errorhandlingspringbootstarter;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the dispatch of an exception to the matching {@link ApiExceptionHandler} in
+ * {@link ErrorHandlingControllerAdvice}. The exception is handled by the last registered handler,
+ * so all other handlers need to be skipped.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HandlerDispatchBenchmark {
+
+    @Param({"1", "10", "50"})
+    private int handlerCount;
+
+    @Param({"true", "false"})
+    private boolean declaresHandledTypes;
+
+    private ErrorHandlingControllerAdvice advice;
+    private Throwable exception;
+    private Throwable unhandledException;
+
+    @Setup
+    public void setup() {
+        ErrorHandlingProperties properties = new ErrorHandlingProperties();
+        properties.setExceptionLogging(ErrorHandlingProperties.ExceptionLogging.NO_LOGGING);
+        List<ApiExceptionHandler> handlers = new ArrayList<>();
+        for (int i = 0; i < handlerCount - 1; i++) {
+            handlers.add(new BenchmarkApiExceptionHandler(UnrelatedException.class, declaresHandledTypes));
+        }
+        handlers.add(new BenchmarkApiExceptionHandler(BenchmarkException.class, declaresHandledTypes));
+        advice = new ErrorHandlingControllerAdvice(properties,
+                                                   handlers,
+                                                   new DefaultFallbackApiExceptionHandler(properties));
+        exception = new BenchmarkException();
+        unhandledException = new IllegalStateException("Not handled by any handler");
+    }
+
+    @Benchmark
+    public ResponseEntity<?> dispatch() {
+        return advice.handleException(exception, null, Locale.ENGLISH);
+    }
+
+    @Benchmark
+    public ResponseEntity<?> fallback() {
+        return advice.handleException(unhandledException, null, Locale.ENGLISH);
+    }
+
+    static class BenchmarkException extends RuntimeException {
+        BenchmarkException() {
+            super("Benchmark exception");
+        }
+    }
+
+    static class UnrelatedException extends RuntimeException {
+    }
+
+    static class BenchmarkApiExceptionHandler implements ApiExceptionHandler {
+        private final Class<? extends Throwable> handledType;
+        private final boolean declaresHandledTypes;
+
+        BenchmarkApiExceptionHandler(Class<? extends Throwable> handledType,
+                                     boolean declaresHandledTypes) {
+            this.handledType = handledType;
+            this.declaresHandledTypes = declaresHandledTypes;
+        }
+
+        @Override
+        public boolean canHandle(Throwable exception) {
+            return handledType.isInstance(exception);
+        }
+
+        @Override
+        public Set<Class<? extends Throwable>> handledTypes() {
+            return declaresHandledTypes ? Collections.singleton(handledType) : Collections.emptySet();
+        }
+
+        @Override
+        public ApiErrorResponse handle(Throwable exception) {
+            return new ApiErrorResponse(HttpStatus.BAD_REQUEST, "BENCHMARK", exception.getMessage());
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package io.github.wimdeblauwe.errorhandlingspringbootstarter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.HttpStatus;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the serialization of an {@link ApiErrorResponse} to JSON via the {@link ApiErrorResponseSerializer}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+
+    @Param({"0", "100", "10000"})
+    private int fieldErrorCount;
+
+    private ObjectMapper objectMapper;
+    private ApiErrorResponse response;
+
+    @Setup
+    public void setup() {
+        ErrorHandlingProperties properties = new ErrorHandlingProperties();
+        objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new SimpleModule().addSerializer(ApiErrorResponse.class, new ApiErrorResponseSerializer(properties)));
+
+        response = new ApiErrorResponse(HttpStatus.BAD_REQUEST, "VALIDATION_FAILED", "Validation failed. Error count: " + fieldErrorCount);
+        for (int i = 0; i < fieldErrorCount; i++) {
+            response.addFieldError(new ApiFieldError("REQUIRED_NOT_NULL", "rows[" + i + "].value", "must not be null", i));
+        }
+        response.addGlobalError(new ApiGlobalError("ValuesEqual", "Values not equal"));
+        response.addErrorProperty("identifier", 15L);
+        response.addErrorProperty("persistentClassName", "com.example.Order");
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(response);
+    }
+}
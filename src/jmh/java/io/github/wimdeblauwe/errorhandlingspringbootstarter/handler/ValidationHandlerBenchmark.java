@@ -0,0 +1,101 @@
+package io.github.wimdeblauwe.errorhandlingspringbootstarter.handler;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import io.github.wimdeblauwe.errorhandlingspringbootstarter.ApiErrorResponse;
+import io.github.wimdeblauwe.errorhandlingspringbootstarter.ApiErrorResponseSerializer;
+import io.github.wimdeblauwe.errorhandlingspringbootstarter.ErrorHandlingProperties;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.MethodParameter;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.ConstraintViolationException;
+import javax.validation.Valid;
+import javax.validation.Validation;
+import javax.validation.Validator;
+import javax.validation.constraints.NotNull;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link ConstraintViolationApiExceptionHandler} and {@link MethodArgumentNotValidApiExceptionHandler}
+ * for exceptions with an increasing number of validation errors.
+ * <p>
+ * The handlers add the field and global errors lazily, they are only created while the response is serialized.
+ * So each benchmark serializes the response, otherwise it would measure almost nothing.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ValidationHandlerBenchmark {
+
+    @Param({"1", "100", "10000"})
+    private int violationCount;
+
+    private ConstraintViolationApiExceptionHandler constraintViolationHandler;
+    private MethodArgumentNotValidApiExceptionHandler methodArgumentNotValidHandler;
+    private ObjectMapper objectMapper;
+    private ConstraintViolationException constraintViolationException;
+    private MethodArgumentNotValidException methodArgumentNotValidException;
+
+    @Setup
+    public void setup() throws NoSuchMethodException {
+        ErrorHandlingProperties properties = new ErrorHandlingProperties();
+        properties.getCodes().put("NotNull", "REQUIRED_NOT_NULL");
+        constraintViolationHandler = new ConstraintViolationApiExceptionHandler(properties);
+        methodArgumentNotValidHandler = new MethodArgumentNotValidApiExceptionHandler(properties);
+        objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new SimpleModule().addSerializer(ApiErrorResponse.class, new ApiErrorResponseSerializer(properties)));
+
+        BulkRequest request = new BulkRequest();
+        for (int i = 0; i < violationCount; i++) {
+            request.rows.add(new Row());
+        }
+
+        Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+        Set<ConstraintViolation<BulkRequest>> violations = validator.validate(request);
+        constraintViolationException = new ConstraintViolationException(violations);
+
+        BeanPropertyBindingResult bindingResult = new BeanPropertyBindingResult(request, "bulkRequest");
+        for (int i = 0; i < violationCount; i++) {
+            bindingResult.addError(new FieldError("bulkRequest", "rows[" + i + "].value", null, false,
+                                                  new String[]{"NotNull.bulkRequest.rows.value", "NotNull"}, null,
+                                                  "must not be null"));
+        }
+        MethodParameter parameter = new MethodParameter(ValidationHandlerBenchmark.class.getDeclaredMethod("endpoint", BulkRequest.class), 0);
+        methodArgumentNotValidException = new MethodArgumentNotValidException(parameter, bindingResult);
+    }
+
+    @Benchmark
+    public byte[] constraintViolations() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(constraintViolationHandler.handle(constraintViolationException));
+    }
+
+    @Benchmark
+    public byte[] methodArgumentNotValid() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(methodArgumentNotValidHandler.handle(methodArgumentNotValidException));
+    }
+
+    @SuppressWarnings("unused")
+    void endpoint(BulkRequest request) {
+    }
+
+    public static class BulkRequest {
+        @Valid
+        private final List<Row> rows = new ArrayList<>();
+    }
+
+    public static class Row {
+        @NotNull
+        private String value;
+    }
+}
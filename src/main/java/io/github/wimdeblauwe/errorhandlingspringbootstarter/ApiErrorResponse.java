@@ -5,9 +5,12 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import org.springframework.http.HttpStatus;
+import org.springframework.util.CompositeIterator;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
@@ -19,6 +22,9 @@ public class ApiErrorResponse {
     private final Map<String, Object> properties;
     private final List<ApiFieldError> fieldErrors;
     private final List<ApiGlobalError> globalErrors;
+    private List<Iterable<ApiFieldError>> fieldErrorSources;
+    private List<Iterable<ApiGlobalError>> globalErrorSources;
+    private String traceId;
 
     public ApiErrorResponse(HttpStatus httpStatus, String code, String message) {
         this.httpStatus = httpStatus;
@@ -47,12 +53,50 @@ public class ApiErrorResponse {
         return properties;
     }
 
+    /**
+     * The field errors that were added via {@link #addFieldErrors(Iterable)} are created on each call, in a new
+     * unmodifiable list. This does not change the response, so it can be called while the response is serialized on
+     * another thread. The {@link ApiErrorResponseSerializer} does not call this method, it creates each field error once
+     * while writing it.
+     * <p>
+     * Use {@link #addFieldError(ApiFieldError)} to add a field error, the returned list can only be changed if no
+     * field errors were added via {@link #addFieldErrors(Iterable)}.
+     *
+     * @return the field errors of the response
+     */
     public List<ApiFieldError> getFieldErrors() {
-        return fieldErrors;
+        return toList(fieldErrors, fieldErrorSources);
     }
 
+    /**
+     * @return the global errors of the response
+     * @see #getFieldErrors()
+     */
     public List<ApiGlobalError> getGlobalErrors() {
-        return globalErrors;
+        return toList(globalErrors, globalErrorSources);
+    }
+
+    /**
+     * @return the trace or correlation id of the request, if the <code>error.handling.trace-id.enabled</code> property is set
+     */
+    public String getTraceId() {
+        return traceId;
+    }
+
+    public void setTraceId(String traceId) {
+        this.traceId = traceId;
+    }
+
+    /**
+     * @return a copy of this response with another message. Lazily added field and global errors stay lazy.
+     */
+    ApiErrorResponse withMessage(String message) {
+        ApiErrorResponse result = new ApiErrorResponse(httpStatus, code, message);
+        result.properties.putAll(properties);
+        result.traceId = traceId;
+        result.addFieldErrors(this::fieldErrorIterator);
+        result.addGlobalErrors(this::globalErrorIterator);
+        return result;
     }
 
     public void addErrorProperties(Map<String, Object> errorProperties) {
@@ -70,4 +114,65 @@ public class ApiErrorResponse {
     public void addGlobalError(ApiGlobalError globalError) {
         globalErrors.add(globalError);
     }
+
+    /**
+     * Add field errors that are only created when they are iterated. This allows the {@link ApiErrorResponseSerializer}
+     * to write a large number of field errors without keeping them all in memory.
+     *
+     * @param fieldErrors the field errors, which are iterated each time the response is serialized
+     */
+    public void addFieldErrors(Iterable<ApiFieldError> fieldErrors) {
+        if (fieldErrorSources == null) {
+            fieldErrorSources = new ArrayList<>();
+        }
+        fieldErrorSources.add(fieldErrors);
+    }
+
+    /**
+     * Add global errors that are only created when they are iterated.
+     *
+     * @param globalErrors the global errors, which are iterated each time the response is serialized
+     * @see #addFieldErrors(Iterable)
+     */
+    public void addGlobalErrors(Iterable<ApiGlobalError> globalErrors) {
+        if (globalErrorSources == null) {
+            globalErrorSources = new ArrayList<>();
+        }
+        globalErrorSources.add(globalErrors);
+    }
+
+    Iterator<ApiFieldError> fieldErrorIterator() {
+        return iterator(fieldErrors, fieldErrorSources);
+    }
+
+    Iterator<ApiGlobalError> globalErrorIterator() {
+        return iterator(globalErrors, globalErrorSources);
+    }
+
+    private static <T> List<T> toList(List<T> elements,
+                                      List<Iterable<T>> sources) {
+        if (sources == null) {
+            return elements;
+        }
+        List<T> result = new ArrayList<>(elements);
+        for (Iterable<T> source : sources) {
+            for (T element : source) {
+                result.add(element);
+            }
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    private static <T> Iterator<T> iterator(List<T> elements,
+                                            List<Iterable<T>> sources) {
+        if (sources == null) {
+            return elements.iterator();
+        }
+        CompositeIterator<T> result = new CompositeIterator<>();
+        result.add(elements.iterator());
+        for (Iterable<T> source : sources) {
+            result.add(source.iterator());
+        }
+        return result;
+    }
 }
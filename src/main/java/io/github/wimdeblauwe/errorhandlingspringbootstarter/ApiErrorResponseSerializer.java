@@ -1,66 +1,181 @@
 package io.github.wimdeblauwe.errorhandlingspringbootstarter;
 
 import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
 import com.fasterxml.jackson.databind.JsonSerializer;
 import com.fasterxml.jackson.databind.SerializerProvider;
 import org.springframework.boot.jackson.JsonComponent;
 
 import java.io.IOException;
-import java.util.List;
+import java.util.Iterator;
 import java.util.Map;
 
 @JsonComponent
-public class ApiErrorResponseSerializer extends JsonSerializer<ApiErrorResponse> {
+public class ApiErrorResponseSerializer extends JsonSerializer<ApiErrorResponse> implements Refreshable {
+    private static final SerializableString STATUS = new SerializedString("status");
+    private static final SerializableString PROPERTY = new SerializedString("property");
+    private static final SerializableString REJECTED_VALUE = new SerializedString("rejectedValue");
+    /**
+     * Number of field or global errors after which the generator is flushed, so the client receives
+     * the first part of a large response while the rest is still being written.
+     */
+    private static final int FLUSH_INTERVAL = 1000;
 
     private final ErrorHandlingProperties properties;
+    private volatile SerializedFieldNames serializedFieldNames;
 
     public ApiErrorResponseSerializer(ErrorHandlingProperties properties) {
         this.properties = properties;
+        this.serializedFieldNames = new SerializedFieldNames(properties.snapshot());
+    }
+
+    @Override
+    public void refresh() {
+        getSerializedFieldNames(properties.snapshot());
     }
 
     @Override
     public void serialize(ApiErrorResponse errorResponse,
                           JsonGenerator jsonGenerator,
                           SerializerProvider serializerProvider) throws IOException {
+        ErrorHandlingProperties properties = this.properties.snapshot();
         jsonGenerator.writeStartObject();
         if (properties.isHttpStatusInJsonResponse()) {
-            jsonGenerator.writeNumberField("status", errorResponse.getHttpStatus().value());
+            jsonGenerator.writeFieldName(STATUS);
+            jsonGenerator.writeNumber(errorResponse.getHttpStatus().value());
         }
-        ErrorHandlingProperties.JsonFieldNames fieldNames = properties.getJsonFieldNames();
-        jsonGenerator.writeStringField(fieldNames.getCode(), errorResponse.getCode());
-        jsonGenerator.writeStringField(fieldNames.getMessage(), errorResponse.getMessage());
-
-        List<ApiFieldError> fieldErrors = errorResponse.getFieldErrors();
-        if (!fieldErrors.isEmpty()) {
-            jsonGenerator.writeArrayFieldStart(fieldNames.getFieldErrors());
-            for (ApiFieldError fieldError : fieldErrors) {
+        SerializedFieldNames fieldNames = getSerializedFieldNames(properties);
+        ErrorHandlingProperties.ValueRendering valueRendering = properties.getValueRendering();
+        BoundedValueWriter valueWriter = valueRendering.isEnabled() ? new BoundedValueWriter(valueRendering) : null;
+        writeStringField(jsonGenerator, fieldNames.code, errorResponse.getCode());
+        writeStringField(jsonGenerator, fieldNames.message, errorResponse.getMessage());
+
+        Iterator<ApiFieldError> fieldErrors = errorResponse.fieldErrorIterator();
+        if (fieldErrors.hasNext()) {
+            jsonGenerator.writeFieldName(fieldNames.fieldErrors);
+            jsonGenerator.writeStartArray();
+            int count = 0;
+            while (fieldErrors.hasNext()) {
+                ApiFieldError fieldError = fieldErrors.next();
                 jsonGenerator.writeStartObject();
-                jsonGenerator.writeStringField(fieldNames.getCode(), fieldError.getCode());
-                jsonGenerator.writeStringField(fieldNames.getMessage(), fieldError.getMessage());
-                jsonGenerator.writeStringField("property", fieldError.getProperty());
-                jsonGenerator.writeObjectField("rejectedValue", fieldError.getRejectedValue());
+                writeStringField(jsonGenerator, fieldNames.code, fieldError.getCode());
+                writeStringField(jsonGenerator, fieldNames.message, fieldError.getMessage());
+                writeStringField(jsonGenerator, PROPERTY, fieldError.getProperty());
+                jsonGenerator.writeFieldName(REJECTED_VALUE);
+                writeValue(jsonGenerator, serializerProvider, valueWriter, fieldError.getRejectedValue());
                 jsonGenerator.writeEndObject();
+                flushPeriodically(jsonGenerator, ++count);
             }
             jsonGenerator.writeEndArray();
         }
 
-        List<ApiGlobalError> globalErrors = errorResponse.getGlobalErrors();
-        if (!globalErrors.isEmpty()) {
-            jsonGenerator.writeArrayFieldStart(fieldNames.getGlobalErrors());
-            for (ApiGlobalError globalError : globalErrors) {
+        Iterator<ApiGlobalError> globalErrors = errorResponse.globalErrorIterator();
+        if (globalErrors.hasNext()) {
+            jsonGenerator.writeFieldName(fieldNames.globalErrors);
+            jsonGenerator.writeStartArray();
+            int count = 0;
+            while (globalErrors.hasNext()) {
+                ApiGlobalError globalError = globalErrors.next();
                 jsonGenerator.writeStartObject();
-                jsonGenerator.writeStringField(fieldNames.getCode(), globalError.getCode());
-                jsonGenerator.writeStringField(fieldNames.getMessage(), globalError.getMessage());
+                writeStringField(jsonGenerator, fieldNames.code, globalError.getCode());
+                writeStringField(jsonGenerator, fieldNames.message, globalError.getMessage());
                 jsonGenerator.writeEndObject();
+                flushPeriodically(jsonGenerator, ++count);
             }
             jsonGenerator.writeEndArray();
         }
 
-        Map<String, Object> properties = errorResponse.getProperties();
-        for (String property : properties.keySet()) {
-            jsonGenerator.writeObjectField(property, properties.get(property));
+        for (Map.Entry<String, Object> property : errorResponse.getProperties().entrySet()) {
+            jsonGenerator.writeFieldName(property.getKey());
+            writeValue(jsonGenerator, serializerProvider, valueWriter, property.getValue());
+        }
+
+        if (errorResponse.getTraceId() != null) {
+            writeStringField(jsonGenerator, fieldNames.traceId, errorResponse.getTraceId());
         }
 
         jsonGenerator.writeEndObject();
     }
+
+    /**
+     * Returns the pre-encoded JSON field names. They are only encoded again if
+     * the snapshot of the properties has been changed.
+     */
+    private SerializedFieldNames getSerializedFieldNames(ErrorHandlingProperties properties) {
+        SerializedFieldNames result = serializedFieldNames;
+        if (result.revision != properties.getRevision()) {
+            result = new SerializedFieldNames(properties);
+            serializedFieldNames = result;
+        }
+        return result;
+    }
+
+    private static void flushPeriodically(JsonGenerator jsonGenerator,
+                                          int count) throws IOException {
+        if (count % FLUSH_INTERVAL == 0) {
+            jsonGenerator.flush();
+        }
+    }
+
+    private static void writeStringField(JsonGenerator jsonGenerator,
+                                         SerializableString fieldName,
+                                         String value) throws IOException {
+        jsonGenerator.writeFieldName(fieldName);
+        jsonGenerator.writeString(value);
+    }
+
+    /**
+     * Write the value with the {@link BoundedValueWriter} if the rendering of values is limited. Otherwise, strings and
+     * booleans are written directly and other types are written with the serializer that Jackson has configured for
+     * them, so numbers, enums, dates, ... respect the configuration of the {@link com.fasterxml.jackson.databind.ObjectMapper}
+     * (e.g. a <code>ToStringSerializer</code> for <code>Long</code>).
+     */
+    private static void writeValue(JsonGenerator jsonGenerator,
+                                   SerializerProvider serializerProvider,
+                                   BoundedValueWriter valueWriter,
+                                   Object value) throws IOException {
+        if (valueWriter != null) {
+            valueWriter.write(jsonGenerator, serializerProvider, value);
+        } else if (!writeSimpleValue(jsonGenerator, value)) {
+            serializerProvider.defaultSerializeValue(value, jsonGenerator);
+        }
+    }
+
+    /**
+     * @return <code>true</code> if the value is <code>null</code>, a string or a boolean and was written,
+     * <code>false</code> if nothing was written
+     */
+    static boolean writeSimpleValue(JsonGenerator jsonGenerator,
+                                    Object value) throws IOException {
+        if (value == null) {
+            jsonGenerator.writeNull();
+        } else if (value instanceof String) {
+            jsonGenerator.writeString((String) value);
+        } else if (value instanceof Boolean) {
+            jsonGenerator.writeBoolean((Boolean) value);
+        } else {
+            return false;
+        }
+        return true;
+    }
+
+    private static final class SerializedFieldNames {
+        private final long revision;
+        private final SerializableString code;
+        private final SerializableString message;
+        private final SerializableString fieldErrors;
+        private final SerializableString globalErrors;
+        private final SerializableString traceId;
+
+        private SerializedFieldNames(ErrorHandlingProperties properties) {
+            ErrorHandlingProperties.JsonFieldNames jsonFieldNames = properties.getJsonFieldNames();
+            this.revision = properties.getRevision();
+            this.code = new SerializedString(jsonFieldNames.getCode());
+            this.message = new SerializedString(jsonFieldNames.getMessage());
+            this.fieldErrors = new SerializedString(jsonFieldNames.getFieldErrors());
+            this.globalErrors = new SerializedString(jsonFieldNames.getGlobalErrors());
+            this.traceId = new SerializedString(jsonFieldNames.getTraceId());
+        }
+    }
 }
@@ -0,0 +1,49 @@
+package io.github.wimdeblauwe.errorhandlingspringbootstarter;
+
+/**
+ * Base class for exceptions that are part of the API of an application, like a "not found" or a "conflict".
+ * Subclasses can use {@link ResponseErrorCode}, {@link org.springframework.web.bind.annotation.ResponseStatus}
+ * and {@link ResponseErrorProperty} like any other exception.
+ * <p>
+ * By default, no stack trace is captured when the exception is created. Such exceptions are thrown
+ * often and the stack trace is not used, so capturing it only costs time.
+ * Use {@link #ApiException(String, Throwable, boolean)} to capture the stack trace anyway.
+ */
+public abstract class ApiException extends RuntimeException {
+    private final boolean writableStackTrace;
+
+    protected ApiException(String message) {
+        this(message, null, false);
+    }
+
+    protected ApiException(String message,
+                           Throwable cause) {
+        this(message, cause, false);
+    }
+
+    /**
+     * @param message            the detail message
+     * @param cause              the cause, or <code>null</code>
+     * @param writableStackTrace if the stack trace should be captured
+     */
+    protected ApiException(String message,
+                           Throwable cause,
+                           boolean writableStackTrace) {
+        super(message, cause, true, writableStackTrace);
+        this.writableStackTrace = writableStackTrace;
+    }
+
+    /**
+     * @return <code>true</code> if this exception, or one of its causes, has a stack trace that is worth logging
+     */
+    public boolean hasStackTrace() {
+        if (writableStackTrace) {
+            return true;
+        }
+        Throwable cause = getCause();
+        if (cause instanceof ApiException && cause != this) {
+            return ((ApiException) cause).hasStackTrace();
+        }
+        return cause != null;
+    }
+}
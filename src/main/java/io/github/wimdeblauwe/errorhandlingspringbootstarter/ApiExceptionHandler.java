@@ -1,5 +1,8 @@
 package io.github.wimdeblauwe.errorhandlingspringbootstarter;
 
+import java.util.Collections;
+import java.util.Set;
+
 public interface ApiExceptionHandler {
     /**
      * Determine if this {@link ApiExceptionHandler} can handle the given {@link Throwable}.
@@ -20,4 +23,16 @@ public interface ApiExceptionHandler {
      * @return the non-null ApiErrorResponse
      */
     ApiErrorResponse handle(Throwable exception);
+
+    /**
+     * Optionally declare the exception types this {@link ApiExceptionHandler} handles.
+     * When a non-empty set is returned, the handler is only considered for the instances of those types
+     * (including subclasses). This is determined once per exception class, so {@link #canHandle(Throwable)}
+     * is only called for the exceptions of those types, and it still decides if the handler is used.
+     *
+     * @return the handled exception types, or an empty set (the default) to only rely on {@link #canHandle(Throwable)}.
+     */
+    default Set<Class<? extends Throwable>> handledTypes() {
+        return Collections.emptySet();
+    }
 }
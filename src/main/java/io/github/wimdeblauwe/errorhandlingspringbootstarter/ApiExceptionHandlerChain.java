@@ -0,0 +1,272 @@
+package io.github.wimdeblauwe.errorhandlingspringbootstarter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.springframework.core.annotation.AnnotationAwareOrderComparator;
+import org.springframework.http.ResponseEntity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Creates the response for an exception with the first matching {@link ApiExceptionHandler}, or the
+ * {@link FallbackApiExceptionHandler} if there is none. This is shared between the Spring MVC and
+ * the Spring WebFlux integration.
+ */
+class ApiExceptionHandlerChain {
+    private final ErrorHandlingProperties properties;
+    private final List<ApiExceptionHandler> handlers;
+    private final FallbackApiExceptionHandler fallbackHandler;
+    private final ErrorResponseBodyCache responseBodyCache;
+    private final ErrorHandlingMetrics metrics;
+    private final Logger logger;
+    private final ExceptionLogRateLimiter logRateLimiter;
+    private final AsyncExceptionLogger asyncExceptionLogger;
+    private final ExceptionUnwrapper exceptionUnwrapper;
+    private final ErrorMessageLocalizer messageLocalizer;
+    private final OverloadProtection overloadProtection;
+    private final TraceIdLookup traceIdLookup;
+    private final ClassValue<HandlerDispatch> dispatchCache = new ClassValue<HandlerDispatch>() {
+        @Override
+        protected HandlerDispatch computeValue(Class<?> exceptionClass) {
+            return createHandlerDispatch(exceptionClass);
+        }
+    };
+
+    ApiExceptionHandlerChain(ErrorHandlingProperties properties,
+                             List<ApiExceptionHandler> handlers,
+                             FallbackApiExceptionHandler fallbackHandler,
+                             ObjectMapper objectMapper,
+                             ErrorHandlingMetrics metrics,
+                             AsyncExceptionLogger asyncExceptionLogger,
+                             ErrorMessageLocalizer messageLocalizer,
+                             OverloadProtection overloadProtection,
+                             Logger logger) {
+        this.properties = properties;
+        this.handlers = new ArrayList<>(handlers);
+        this.fallbackHandler = fallbackHandler;
+        this.responseBodyCache = objectMapper != null ? new ErrorResponseBodyCache(properties, objectMapper) : null;
+        this.metrics = metrics;
+        this.logger = logger;
+        this.logRateLimiter = new ExceptionLogRateLimiter(properties, logger);
+        this.asyncExceptionLogger = asyncExceptionLogger;
+        this.exceptionUnwrapper = new ExceptionUnwrapper(properties);
+        this.messageLocalizer = messageLocalizer;
+        this.overloadProtection = overloadProtection;
+        this.traceIdLookup = new TraceIdLookup(properties);
+        this.handlers.sort(AnnotationAwareOrderComparator.INSTANCE);
+    }
+
+    /**
+     * Create the response for the given exception.
+     *
+     * @param exception the Throwable that needs to be handled
+     * @param locale    the locale of the request, used for the messages if there is an {@link ErrorMessageLocalizer}
+     * @return the response, with an {@link ApiErrorResponse} body, or a <code>byte[]</code> body with the serialized
+     * JSON response if it was cached (See {@link ErrorHandlingProperties#isCacheConstantResponses()}).
+     */
+    ResponseEntity<?> handle(Throwable exception,
+                             Locale locale) {
+        Map<Throwable, String> previousMessages = ExceptionMessages.startCaching();
+        try {
+            return doHandle(exception, locale);
+        } finally {
+            ExceptionMessages.stopCaching(previousMessages);
+        }
+    }
+
+    private ResponseEntity<?> doHandle(Throwable exception,
+                                       Locale locale) {
+        long startTime = metrics.startTime();
+        ErrorHandlingProperties properties = this.properties.snapshot();
+        boolean overloaded = overloadProtection != null && overloadProtection.recordError();
+        String traceId = traceIdLookup.getTraceId();
+
+        ApiExceptionHandler handler = findHandler(exception);
+        Throwable handledException = exception;
+        for (Throwable cause = exceptionUnwrapper.getCause(exception, exception);
+             handler == null && cause != null;
+             cause = exceptionUnwrapper.getCause(exception, cause)) {
+            handler = findHandler(cause);
+            handledException = cause;
+        }
+        if (handler != null) {
+            return createResponseEntity(handler.handle(handledException), handler, exception, locale, startTime, overloaded, traceId, properties);
+        }
+
+        if (overloaded) {
+            return createMinimalResponseEntity(exception, startTime, traceId, properties);
+        }
+
+        if (isResponseBodyCacheApplicable(exception, properties)) {
+            ErrorResponseBodyCache.CachedBody cachedBody = responseBodyCache.getResponse(exception, fallbackHandler);
+            if (cachedBody != null) {
+                logException(exception, cachedBody.getCode(), false, traceId, properties);
+                metrics.record(startTime, cachedBody.getCode(), cachedBody.getHttpStatus(), fallbackHandler.getClass());
+                return cachedBody.toResponseEntity(traceId);
+            }
+        }
+        return createResponseEntity(fallbackHandler.handle(exception), fallbackHandler, exception, locale, startTime, false, traceId, properties);
+    }
+
+    /**
+     * In overload mode, the fallback response has no message or error properties of the exception,
+     * so the serialized body can be shared by all exceptions with the same HTTP status and error code.
+     */
+    private ResponseEntity<?> createMinimalResponseEntity(Throwable exception,
+                                                          long startTime,
+                                                          String traceId,
+                                                          ErrorHandlingProperties properties) {
+        ApiErrorResponse errorResponse = fallbackHandler.handleMinimal(exception);
+        logException(exception, errorResponse.getCode(), true, traceId, properties);
+        metrics.record(startTime, errorResponse.getCode(), errorResponse.getHttpStatus(), fallbackHandler.getClass());
+        if (responseBodyCache != null && errorResponse.getCode() != null) {
+            ErrorResponseBodyCache.CachedBody cachedBody = responseBodyCache.getMinimalResponse(errorResponse);
+            if (cachedBody != null) {
+                return cachedBody.toResponseEntity(traceId);
+            }
+        }
+        errorResponse.setTraceId(traceId);
+        return ResponseEntity.status(errorResponse.getHttpStatus())
+                             .body(errorResponse);
+    }
+
+    /**
+     * Stop the background thread of the rate limiting of the logging.
+     */
+    void close() {
+        logRateLimiter.close();
+    }
+
+    /**
+     * Determine the handlers for the given exception class in advance (See {@link ExceptionClassWarmUp}).
+     */
+    void warmUp(Class<? extends Throwable> exceptionClass) {
+        dispatchCache.get(exceptionClass);
+    }
+
+    private ApiExceptionHandler findHandler(Throwable exception) {
+        return dispatchCache.get(exception.getClass()).findHandler(exception);
+    }
+
+    private ResponseEntity<?> createResponseEntity(ApiErrorResponse errorResponse,
+                                                   Object handler,
+                                                   Throwable exception,
+                                                   Locale locale,
+                                                   long startTime,
+                                                   boolean overloaded,
+                                                   String traceId,
+                                                   ErrorHandlingProperties properties) {
+        logException(exception, errorResponse.getCode(), overloaded, traceId, properties);
+        metrics.record(startTime, errorResponse.getCode(), errorResponse.getHttpStatus(), handler.getClass());
+        ApiErrorResponse body = ExceptionMessages.applyMessageBudget(errorResponse, properties);
+        if (messageLocalizer != null) {
+            body = messageLocalizer.localize(body, locale);
+        }
+        if (traceId != null) {
+            body.setTraceId(traceId);
+        }
+        return ResponseEntity.status(body.getHttpStatus())
+                             .body(body);
+    }
+
+    /**
+     * The cached body has the message of a single locale, so it can not be used if the messages are localized.
+     */
+    private boolean isResponseBodyCacheApplicable(Throwable exception,
+                                                  ErrorHandlingProperties properties) {
+        return responseBodyCache != null
+                && messageLocalizer == null
+                && properties.isCacheConstantResponses()
+                && fallbackHandler.hasCacheableResponse(exception.getClass());
+    }
+
+    /**
+     * Determine which handlers need to be considered for the given exception class, respecting the order of the handlers.
+     * Handlers that declare their {@link ApiExceptionHandler#handledTypes()} are only kept if the exception class is one
+     * of those types. All kept handlers are still asked with {@link ApiExceptionHandler#canHandle(Throwable)} at runtime.
+     */
+    private HandlerDispatch createHandlerDispatch(Class<?> exceptionClass) {
+        List<ApiExceptionHandler> candidates = new ArrayList<>();
+        for (ApiExceptionHandler handler : handlers) {
+            Set<Class<? extends Throwable>> handledTypes = handler.handledTypes();
+            if (handledTypes.isEmpty() || isAssignableToAny(exceptionClass, handledTypes)) {
+                candidates.add(handler);
+            }
+        }
+        return new HandlerDispatch(candidates);
+    }
+
+    private static boolean isAssignableToAny(Class<?> exceptionClass, Set<Class<? extends Throwable>> types) {
+        for (Class<? extends Throwable> type : types) {
+            if (type.isAssignableFrom(exceptionClass)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param overloaded if the error handling is in overload mode, in which case only a sample of the exceptions is logged
+     * @param traceId    the trace id of the request that is added to the log line, or <code>null</code>
+     * @param properties the snapshot of the properties that is used to handle the exception
+     */
+    private void logException(Throwable exception,
+                              String code,
+                              boolean overloaded,
+                              String traceId,
+                              ErrorHandlingProperties properties) {
+        boolean fullStacktrace = ExceptionHierarchyMapping.of(properties).isFullStacktrace(exception.getClass());
+        ErrorHandlingProperties.ExceptionLogging exceptionLogging = properties.getExceptionLogging();
+        if (!fullStacktrace && exceptionLogging == ErrorHandlingProperties.ExceptionLogging.NO_LOGGING) {
+            return;
+        }
+        if (overloaded && !overloadProtection.shouldLog()) {
+            return;
+        }
+        if (!logRateLimiter.tryAcquire(exception, code)) {
+            return;
+        }
+
+        boolean withStacktrace = (fullStacktrace || exceptionLogging == ErrorHandlingProperties.ExceptionLogging.WITH_STACKTRACE)
+                && hasStackTrace(exception);
+        String message = ExceptionMessages.getMessage(exception);
+        if (traceId != null) {
+            message = message + " [traceId=" + traceId + "]";
+        }
+        if (asyncExceptionLogger != null) {
+            asyncExceptionLogger.log(exception, message, withStacktrace);
+        } else if (withStacktrace) {
+            logger.error(message, exception);
+        } else {
+            logger.error(message);
+        }
+    }
+
+    /**
+     * An {@link ApiException} without stack trace is logged as a single line, as there is no stack trace to print.
+     */
+    private static boolean hasStackTrace(Throwable exception) {
+        return !(exception instanceof ApiException) || ((ApiException) exception).hasStackTrace();
+    }
+
+    private static final class HandlerDispatch {
+        private final ApiExceptionHandler[] candidates;
+
+        private HandlerDispatch(List<ApiExceptionHandler> candidates) {
+            this.candidates = candidates.toArray(new ApiExceptionHandler[0]);
+        }
+
+        private ApiExceptionHandler findHandler(Throwable exception) {
+            for (ApiExceptionHandler handler : candidates) {
+                if (handler.canHandle(exception)) {
+                    return handler;
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package io.github.wimdeblauwe.errorhandlingspringbootstarter;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Logs the handled exceptions on a dedicated thread, so the request thread does not need to wait
+ * on the rendering of the stack trace and the logging I/O.
+ * <p>
+ * The log records are put on a bounded queue. If the queue is full, the record is dropped instead of
+ * blocking the request thread. The number of dropped records is available via {@link #getDroppedCount()}.
+ */
+public class AsyncExceptionLogger implements AutoCloseable {
+    private static final long POLL_TIMEOUT_MILLIS = 100;
+    private static final long CLOSE_TIMEOUT_MILLIS = 1000;
+
+    private final Logger logger;
+    private final BlockingQueue<LogRecord> queue;
+    private final LongAdder droppedCount = new LongAdder();
+    private final Thread thread;
+    private volatile boolean closed;
+
+    public AsyncExceptionLogger(int queueCapacity) {
+        this(queueCapacity, LoggerFactory.getLogger(ErrorHandlingControllerAdvice.class));
+    }
+
+    AsyncExceptionLogger(int queueCapacity,
+                         Logger logger) {
+        this.logger = logger;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.thread = new Thread(this::processRecords, "error-handling-logger");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Queue the exception for logging with a message that is already known, so it does not need to be computed again.
+     *
+     * @param exception      the exception to log
+     * @param message        the message of the exception
+     * @param withStacktrace if the stack trace of the exception should be logged
+     */
+    public void log(Throwable exception,
+                    String message,
+                    boolean withStacktrace) {
+        offer(new LogRecord(exception, message, withStacktrace, MDC.getCopyOfContextMap()));
+    }
+
+    private void offer(LogRecord record) {
+        if (!queue.offer(record)) {
+            droppedCount.increment();
+        }
+    }
+
+    /**
+     * @return the number of exceptions that were not logged because the queue was full
+     */
+    public long getDroppedCount() {
+        return droppedCount.sum();
+    }
+
+    /**
+     * Stop the logging thread after logging the records that are still queued.
+     * If the calling thread is interrupted while waiting, it stops waiting and keeps its interrupt status.
+     */
+    @Override
+    public void close() {
+        // The thread is not interrupted, as an interrupt can break the I/O of the logging backend
+        closed = true;
+        try {
+            thread.join(CLOSE_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void processRecords() {
+        try {
+            while (!closed) {
+                LogRecord record = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                if (record != null) {
+                    write(record);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        LogRecord record;
+        while ((record = queue.poll()) != null) {
+            write(record);
+        }
+    }
+
+    private void write(LogRecord record) {
+        if (record.mdc != null) {
+            MDC.setContextMap(record.mdc);
+        }
+        try {
+            if (record.withStacktrace) {
+                logger.error(record.message, record.exception);
+            } else {
+                logger.error(record.message);
+            }
+        } catch (RuntimeException e) {
+            // Keep the logging thread alive if the logging backend fails
+        } finally {
+            MDC.clear();
+        }
+    }
+
+    private static final class LogRecord {
+        private final Throwable exception;
+        private final String message;
+        private final boolean withStacktrace;
+        private final Map<String, String> mdc;
+
+        private LogRecord(Throwable exception,
+                          String message,
+                          boolean withStacktrace,
+                          Map<String, String> mdc) {
+            this.exception = exception;
+            this.message = message;
+            this.withStacktrace = withStacktrace;
+            this.mdc = mdc;
+        }
+    }
+}
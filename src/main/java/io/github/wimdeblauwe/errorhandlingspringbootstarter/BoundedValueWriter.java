@@ -0,0 +1,341 @@
+package io.github.wimdeblauwe.errorhandlingspringbootstarter;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
+import com.fasterxml.jackson.databind.ser.BeanSerializer;
+import com.fasterxml.jackson.databind.ser.PropertyWriter;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.nio.ByteBuffer;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.time.temporal.TemporalAccessor;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Writes the rejected values and error properties of a response within the limits of
+ * {@link ErrorHandlingProperties.ValueRendering}:
+ * <ul>
+ *     <li>Strings are truncated, collections, maps and arrays are limited in size and nesting depth.</li>
+ *     <li>Binary data is summarized, streams and LOBs are never read.</li>
+ *     <li>JPA entities and Hibernate proxies are written as their id, so no lazy associations are loaded.
+ *     Hibernate collections that are not initialized are written as <code>null</code>.</li>
+ * </ul>
+ * Numbers, enums, UUIDs and dates are serialized by Jackson. Objects that Jackson serializes as a bean are written
+ * property by property, with the properties that Jackson finds, so the same limits apply to their property values.
+ * Other objects are serialized by their own Jackson serializer, unless the maximum depth is reached.
+ * <p>
+ * JPA and Hibernate are not dependencies of this library, so their types are recognized by name.
+ */
+class BoundedValueWriter {
+    static final String TRUNCATED = "...";
+    static final String BINARY_DATA = "<binary data>";
+
+    private static final String[] ENTITY_ANNOTATIONS = {"javax.persistence.Entity", "jakarta.persistence.Entity"};
+    private static final String[] ID_ANNOTATIONS = {"javax.persistence.Id", "javax.persistence.EmbeddedId",
+            "jakarta.persistence.Id", "jakarta.persistence.EmbeddedId"};
+    private static final String HIBERNATE_PROXY = "org.hibernate.proxy.HibernateProxy";
+    private static final String PERSISTENT_COLLECTION = "org.hibernate.collection.spi.PersistentCollection";
+
+    private static final ClassValue<ValueType> VALUE_TYPES = new ClassValue<ValueType>() {
+        @Override
+        protected ValueType computeValue(Class<?> type) {
+            return ValueType.of(type);
+        }
+    };
+
+    private final int maxStringLength;
+    private final int maxCollectionElements;
+    private final int maxDepth;
+    private final boolean summarizeBinary;
+
+    BoundedValueWriter(ErrorHandlingProperties.ValueRendering valueRendering) {
+        this.maxStringLength = valueRendering.getMaxStringLength();
+        this.maxCollectionElements = valueRendering.getMaxCollectionElements();
+        this.maxDepth = valueRendering.getMaxDepth();
+        this.summarizeBinary = valueRendering.isSummarizeBinary();
+    }
+
+    void write(JsonGenerator jsonGenerator,
+               SerializerProvider serializerProvider,
+               Object value) throws IOException {
+        write(jsonGenerator, serializerProvider, value, 0);
+    }
+
+    private void write(JsonGenerator jsonGenerator,
+                       SerializerProvider serializerProvider,
+                       Object value,
+                       int depth) throws IOException {
+        if (value instanceof CharSequence) {
+            jsonGenerator.writeString(truncate(value.toString()));
+        } else if (value instanceof Number || value instanceof Enum || value instanceof UUID
+                || value instanceof Date || value instanceof TemporalAccessor) {
+            serializerProvider.defaultSerializeValue(value, jsonGenerator);
+        } else if (!ApiErrorResponseSerializer.writeSimpleValue(jsonGenerator, value)) {
+            writeObject(jsonGenerator, serializerProvider, value, depth);
+        }
+    }
+
+    private void writeObject(JsonGenerator jsonGenerator,
+                             SerializerProvider serializerProvider,
+                             Object value,
+                             int depth) throws IOException {
+        if (value instanceof byte[]) {
+            writeBinary(jsonGenerator, (byte[]) value);
+            return;
+        }
+        if (value instanceof ByteBuffer) {
+            ByteBuffer buffer = ((ByteBuffer) value).duplicate();
+            if (summarizeBinary) {
+                jsonGenerator.writeString(summarize(buffer.remaining()));
+            } else {
+                byte[] bytes = new byte[maxStringLength >= 0 ? Math.min(buffer.remaining(), maxStringLength) : buffer.remaining()];
+                buffer.get(bytes);
+                jsonGenerator.writeBinary(bytes);
+            }
+            return;
+        }
+        if (value instanceof InputStream || value instanceof Reader || value instanceof Blob || value instanceof Clob) {
+            jsonGenerator.writeString(BINARY_DATA);
+            return;
+        }
+
+        ValueType valueType = VALUE_TYPES.get(value.getClass());
+        if (valueType instanceof EntityReferenceType) {
+            write(jsonGenerator, serializerProvider, ((EntityReferenceType) valueType).getId(value), depth);
+            return;
+        }
+        if (!valueType.isInitialized(value)) {
+            jsonGenerator.writeNull();
+            return;
+        }
+        if (maxDepth >= 0 && depth >= maxDepth) {
+            jsonGenerator.writeString(TRUNCATED);
+            return;
+        }
+
+        if (value instanceof Map) {
+            jsonGenerator.writeStartObject();
+            int count = 0;
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                if (isLimitReached(count++)) {
+                    break;
+                }
+                jsonGenerator.writeFieldName(truncate(String.valueOf(entry.getKey())));
+                write(jsonGenerator, serializerProvider, entry.getValue(), depth + 1);
+            }
+            jsonGenerator.writeEndObject();
+        } else if (value instanceof Iterable) {
+            jsonGenerator.writeStartArray();
+            int count = 0;
+            for (Iterator<?> iterator = ((Iterable<?>) value).iterator(); iterator.hasNext() && !isLimitReached(count); count++) {
+                write(jsonGenerator, serializerProvider, iterator.next(), depth + 1);
+            }
+            jsonGenerator.writeEndArray();
+        } else if (value.getClass().isArray()) {
+            jsonGenerator.writeStartArray();
+            int length = Array.getLength(value);
+            for (int i = 0; i < length && !isLimitReached(i); i++) {
+                write(jsonGenerator, serializerProvider, Array.get(value, i), depth + 1);
+            }
+            jsonGenerator.writeEndArray();
+        } else {
+            JsonSerializer<Object> serializer = serializerProvider.findValueSerializer(value.getClass());
+            if (serializer instanceof BeanSerializer) {
+                writeBean(jsonGenerator, serializerProvider, value, serializer, depth);
+            } else {
+                serializerProvider.defaultSerializeValue(value, jsonGenerator);
+            }
+        }
+    }
+
+    private void writeBean(JsonGenerator jsonGenerator,
+                           SerializerProvider serializerProvider,
+                           Object value,
+                           JsonSerializer<Object> serializer,
+                           int depth) throws IOException {
+        jsonGenerator.writeStartObject();
+        for (Iterator<PropertyWriter> iterator = serializer.properties(); iterator.hasNext(); ) {
+            PropertyWriter property = iterator.next();
+            if (!(property instanceof BeanPropertyWriter)) {
+                continue;
+            }
+            BeanPropertyWriter beanProperty = (BeanPropertyWriter) property;
+            Object propertyValue;
+            try {
+                propertyValue = beanProperty.get(value);
+            } catch (Exception e) {
+                throw JsonMappingException.from(jsonGenerator, "Unable to get property '" + beanProperty.getName() + "'", e);
+            }
+            if (propertyValue == null && beanProperty.willSuppressNulls()) {
+                continue;
+            }
+            jsonGenerator.writeFieldName(beanProperty.getName());
+            write(jsonGenerator, serializerProvider, propertyValue, depth + 1);
+        }
+        jsonGenerator.writeEndObject();
+    }
+
+    private void writeBinary(JsonGenerator jsonGenerator,
+                             byte[] bytes) throws IOException {
+        if (summarizeBinary) {
+            jsonGenerator.writeString(summarize(bytes.length));
+        } else {
+            int length = maxStringLength >= 0 ? Math.min(bytes.length, maxStringLength) : bytes.length;
+            jsonGenerator.writeBinary(bytes, 0, length);
+        }
+    }
+
+    private boolean isLimitReached(int count) {
+        return maxCollectionElements >= 0 && count >= maxCollectionElements;
+    }
+
+    private String truncate(String value) {
+        if (maxStringLength < 0 || value.length() <= maxStringLength) {
+            return value;
+        }
+        return value.substring(0, maxStringLength) + TRUNCATED;
+    }
+
+    private static String summarize(int length) {
+        return "<binary data: " + length + " bytes>";
+    }
+
+    /**
+     * How values of a class are written, determined once per class.
+     */
+    private static class ValueType {
+        private static final ValueType OTHER = new ValueType();
+
+        static ValueType of(Class<?> type) {
+            for (Class<?> interfaceType : ClassUtils.getAllInterfacesForClassAsSet(type)) {
+                if (HIBERNATE_PROXY.equals(interfaceType.getName())) {
+                    Method getLazyInitializer = ReflectionUtils.findMethod(type, "getHibernateLazyInitializer");
+                    Method getIdentifier = getLazyInitializer != null ? ReflectionUtils.findMethod(getLazyInitializer.getReturnType(), "getIdentifier") : null;
+                    return getIdentifier != null ? new HibernateProxyType(getLazyInitializer, getIdentifier) : OTHER;
+                }
+                if (PERSISTENT_COLLECTION.equals(interfaceType.getName())) {
+                    Method wasInitialized = ReflectionUtils.findMethod(type, "wasInitialized");
+                    return wasInitialized != null ? new PersistentCollectionType(wasInitialized) : OTHER;
+                }
+            }
+            if (hasAnnotation(type, ENTITY_ANNOTATIONS)) {
+                return EntityType.of(type);
+            }
+            return OTHER;
+        }
+
+        boolean isInitialized(Object value) {
+            return true;
+        }
+    }
+
+    /**
+     * The type of entities and proxies, which are written as their id.
+     */
+    private abstract static class EntityReferenceType extends ValueType {
+        abstract Object getId(Object value);
+    }
+
+    private static final class HibernateProxyType extends EntityReferenceType {
+        private final Method getLazyInitializer;
+        private final Method getIdentifier;
+
+        private HibernateProxyType(Method getLazyInitializer,
+                                   Method getIdentifier) {
+            this.getLazyInitializer = getLazyInitializer;
+            this.getIdentifier = getIdentifier;
+        }
+
+        /**
+         * The identifier is known by the proxy, so getting it does not initialize the proxy.
+         */
+        @Override
+        Object getId(Object value) {
+            Object lazyInitializer = ReflectionUtils.invokeMethod(getLazyInitializer, value);
+            return lazyInitializer != null ? ReflectionUtils.invokeMethod(getIdentifier, lazyInitializer) : null;
+        }
+    }
+
+    private static final class PersistentCollectionType extends ValueType {
+        private final Method wasInitialized;
+
+        private PersistentCollectionType(Method wasInitialized) {
+            this.wasInitialized = wasInitialized;
+        }
+
+        @Override
+        boolean isInitialized(Object value) {
+            return Boolean.TRUE.equals(ReflectionUtils.invokeMethod(wasInitialized, value));
+        }
+    }
+
+    private static final class EntityType extends EntityReferenceType {
+        private final Field idField;
+        private final Method idMethod;
+
+        private EntityType(Field idField,
+                           Method idMethod) {
+            this.idField = idField;
+            this.idMethod = idMethod;
+        }
+
+        /**
+         * The id is read from the field or getter with the <code>@Id</code> or <code>@EmbeddedId</code> annotation.
+         */
+        static ValueType of(Class<?> type) {
+            for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+                for (Field field : current.getDeclaredFields()) {
+                    if (!Modifier.isStatic(field.getModifiers()) && hasAnnotation(field, ID_ANNOTATIONS)) {
+                        ReflectionUtils.makeAccessible(field);
+                        return new EntityType(field, null);
+                    }
+                }
+                for (Method method : current.getDeclaredMethods()) {
+                    if (method.getParameterCount() == 0 && hasAnnotation(method, ID_ANNOTATIONS)) {
+                        ReflectionUtils.makeAccessible(method);
+                        return new EntityType(null, method);
+                    }
+                }
+            }
+            return new EntityType(null, null);
+        }
+
+        @Override
+        Object getId(Object value) {
+            if (idField != null) {
+                return ReflectionUtils.getField(idField, value);
+            }
+            return idMethod != null ? ReflectionUtils.invokeMethod(idMethod, value) : null;
+        }
+    }
+
+    private static boolean hasAnnotation(AnnotatedElement element,
+                                         String[] annotationNames) {
+        for (Annotation annotation : element.getDeclaredAnnotations()) {
+            String name = annotation.annotationType().getName();
+            for (String annotationName : annotationNames) {
+                if (annotationName.equals(name)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
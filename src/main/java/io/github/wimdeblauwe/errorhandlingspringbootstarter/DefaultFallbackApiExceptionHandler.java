@@ -13,140 +13,245 @@ import java.beans.IntrospectionException;
 import java.beans.Introspector;
 import java.beans.PropertyDescriptor;
 import java.lang.reflect.Field;
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.regex.Pattern;
 
 
-public class DefaultFallbackApiExceptionHandler implements FallbackApiExceptionHandler {
+public class DefaultFallbackApiExceptionHandler implements FallbackApiExceptionHandler, Refreshable, ExceptionClassWarmUp {
     private static final Logger LOGGER = LoggerFactory.getLogger(DefaultFallbackApiExceptionHandler.class);
+    private static final Pattern EXCEPTION_SUFFIX = Pattern.compile("Exception$");
+    private static final Pattern CAMEL_CASE_BOUNDARY = Pattern.compile("([a-z])([A-Z]+)");
 
     private final ErrorHandlingProperties properties;
+    private final ClassValue<ResponseErrorPropertyAccessor[]> responseErrorPropertyAccessors = new ClassValue<ResponseErrorPropertyAccessor[]>() {
+        @Override
+        protected ResponseErrorPropertyAccessor[] computeValue(Class<?> exceptionClass) {
+            return createResponseErrorPropertyAccessors(exceptionClass);
+        }
+    };
+    private final Map<Class<?>, ExceptionMetadata> exceptionMetadata;
+    private volatile ResolutionCache resolutionCache;
 
     public DefaultFallbackApiExceptionHandler(ErrorHandlingProperties properties) {
+        this(properties, loadExceptionMetadata());
+    }
+
+    DefaultFallbackApiExceptionHandler(ErrorHandlingProperties properties,
+                                       Iterable<ExceptionMetadata> exceptionMetadata) {
         this.properties = properties;
+        this.exceptionMetadata = new HashMap<>();
+        for (ExceptionMetadata metadata : exceptionMetadata) {
+            this.exceptionMetadata.put(metadata.getExceptionClass(), metadata);
+        }
+        this.resolutionCache = new ResolutionCache(properties.snapshot());
+    }
+
+    @Override
+    public void refresh() {
+        getResolutionCache();
+    }
+
+    @Override
+    public void warmUp(Class<? extends Throwable> exceptionClass) {
+        hasCacheableResponse(exceptionClass);
     }
 
     @Override
     public ApiErrorResponse handle(Throwable exception) {
-        HttpStatus statusCode = getHttpStatus(exception);
-        String errorCode = getErrorCode(exception);
+        ExceptionClassResolution resolution = getExceptionClassResolution(exception.getClass());
+        HttpStatus statusCode = resolution.getHttpStatus(exception);
+        String errorCode = resolution.getErrorCode();
 
         ApiErrorResponse response = new ApiErrorResponse(statusCode, errorCode, getErrorMessage(exception));
-        response.addErrorProperties(getMethodResponseErrorProperties(exception));
-        response.addErrorProperties(getFieldResponseErrorProperties(exception));
+        addResponseErrorProperties(response, exception);
 
         return response;
     }
 
+    @Override
+    public ApiErrorResponse handleMinimal(Throwable exception) {
+        ExceptionClassResolution resolution = getExceptionClassResolution(exception.getClass());
+        HttpStatus statusCode = resolution.getHttpStatus(exception);
+        return new ApiErrorResponse(statusCode, resolution.getErrorCode(), statusCode.getReasonPhrase());
+    }
+
+    @Override
+    public boolean hasCacheableResponse(Class<? extends Throwable> exceptionClass) {
+        if (getExceptionClassResolution(exceptionClass).isHttpStatusInstanceDependent()) {
+            return false;
+        }
+        ExceptionMetadata metadata = getPropertiesMetadata(exceptionClass);
+        return metadata != null ? !metadata.hasResponseErrorProperties() : responseErrorPropertyAccessors.get(exceptionClass).length == 0;
+    }
+
     private String getErrorMessage(Throwable exception) {
-        return exception.getMessage();
+        return ExceptionMessages.getMessage(exception);
     }
 
-    private Map<String, Object> getFieldResponseErrorProperties(Throwable exception) {
-        Map<String, Object> result = new HashMap<>();
-        for (Field field : exception.getClass().getDeclaredFields()) {
-            if (field.isAnnotationPresent(ResponseErrorProperty.class)) {
-                try {
-                    field.setAccessible(true);
-                    Object value = field.get(exception);
-                    if (value != null || field.getAnnotation(ResponseErrorProperty.class).includeIfNull()) {
-                        result.put(getPropertyName(field), value);
-                    }
-                } catch (IllegalAccessException e) {
-                    LOGGER.error(String.format("Unable to use field result of field %s.%s", exception.getClass().getName(), field.getName()));
+    private void addResponseErrorProperties(ApiErrorResponse response, Throwable exception) {
+        ExceptionMetadata metadata = getPropertiesMetadata(exception.getClass());
+        if (metadata != null) {
+            try {
+                metadata.addResponseErrorProperties(exception, response);
+            } catch (RuntimeException e) {
+                LOGGER.error(String.format("Unable to use result of %s", metadata.getClass().getName()), e);
+            }
+            return;
+        }
+
+        for (ResponseErrorPropertyAccessor accessor : responseErrorPropertyAccessors.get(exception.getClass())) {
+            try {
+                Object value = accessor.getValue(exception);
+                if (value != null || accessor.isIncludeIfNull()) {
+                    response.addErrorProperty(accessor.getPropertyName(), value);
                 }
+            } catch (RuntimeException e) {
+                LOGGER.error(String.format("Unable to use result of %s", accessor.getDescription()), e);
             }
         }
-        return result;
     }
 
-    private Map<String, Object> getMethodResponseErrorProperties(Throwable exception) {
-        Map<String, Object> result = new HashMap<>();
-        Class<? extends Throwable> exceptionClass = exception.getClass();
+    /**
+     * Collect the accessors for all methods and fields (including inherited ones) that are annotated
+     * with {@link ResponseErrorProperty}. Field accessors come after the method accessors and fields
+     * of subclasses after those of their superclasses, so those win when property names clash.
+     */
+    private ResponseErrorPropertyAccessor[] createResponseErrorPropertyAccessors(Class<?> exceptionClass) {
+        List<ResponseErrorPropertyAccessor> accessors = new ArrayList<>();
+        addMethodAccessors(exceptionClass, accessors);
+        addFieldAccessors(exceptionClass, accessors);
+        return accessors.toArray(new ResponseErrorPropertyAccessor[0]);
+    }
+
+    private void addMethodAccessors(Class<?> exceptionClass, List<ResponseErrorPropertyAccessor> accessors) {
+        Map<Method, String> propertyNames = null;
         for (Method method : exceptionClass.getMethods()) {
-            if (method.isAnnotationPresent(ResponseErrorProperty.class)
+            ResponseErrorProperty annotation = AnnotationUtils.getAnnotation(method, ResponseErrorProperty.class);
+            if (annotation != null
                     && method.getReturnType() != Void.TYPE
                     && method.getParameterCount() == 0) {
+                if (propertyNames == null) {
+                    propertyNames = getBeanPropertyNames(exceptionClass);
+                }
+                String propertyName = !StringUtils.isEmpty(annotation.value()) ? annotation.value() : propertyNames.getOrDefault(method, method.getName());
                 try {
-                    method.setAccessible(true);
-
-                    Object value = method.invoke(exception);
-                    if (value != null || method.getAnnotation(ResponseErrorProperty.class).includeIfNull()) {
-                        result.put(getPropertyName(exceptionClass, method),
-                                   value);
-                    }
-                } catch (IllegalAccessException | InvocationTargetException e) {
-                    LOGGER.error(String.format("Unable to use method result of method %s.%s", exceptionClass.getName(), method.getName()));
+                    accessors.add(ResponseErrorPropertyAccessor.forMethod(method, propertyName, annotation.includeIfNull()));
+                } catch (IllegalAccessException | RuntimeException e) {
+                    LOGGER.error(String.format("Unable to use method result of method %s.%s", exceptionClass.getName(), method.getName()), e);
                 }
             }
         }
-        return result;
     }
 
-    private String getPropertyName(Field field) {
-        ResponseErrorProperty annotation = AnnotationUtils.getAnnotation(field, ResponseErrorProperty.class);
-        assert annotation != null;
-        if (!StringUtils.isEmpty(annotation.value())) {
-            return annotation.value();
+    private void addFieldAccessors(Class<?> exceptionClass, List<ResponseErrorPropertyAccessor> accessors) {
+        Deque<Class<?>> hierarchy = new ArrayDeque<>();
+        for (Class<?> type = exceptionClass; type != null && type != Object.class; type = type.getSuperclass()) {
+            hierarchy.push(type);
         }
-
-        return field.getName();
-    }
-
-    private String getPropertyName(Class<? extends Throwable> exceptionClass, Method method) {
-        ResponseErrorProperty annotation = AnnotationUtils.getAnnotation(method, ResponseErrorProperty.class);
-        assert annotation != null;
-        if (!StringUtils.isEmpty(annotation.value())) {
-            return annotation.value();
+        for (Class<?> type : hierarchy) {
+            for (Field field : type.getDeclaredFields()) {
+                ResponseErrorProperty annotation = AnnotationUtils.getAnnotation(field, ResponseErrorProperty.class);
+                if (annotation != null) {
+                    String propertyName = !StringUtils.isEmpty(annotation.value()) ? annotation.value() : field.getName();
+                    try {
+                        accessors.add(ResponseErrorPropertyAccessor.forField(field, propertyName, annotation.includeIfNull()));
+                    } catch (IllegalAccessException | RuntimeException e) {
+                        LOGGER.error(String.format("Unable to use field result of field %s.%s", type.getName(), field.getName()), e);
+                    }
+                }
+            }
         }
+    }
 
+    private Map<Method, String> getBeanPropertyNames(Class<?> exceptionClass) {
+        Map<Method, String> result = new HashMap<>();
         try {
             BeanInfo beanInfo = Introspector.getBeanInfo(exceptionClass);
-            PropertyDescriptor[] propertyDescriptors = beanInfo.getPropertyDescriptors();
-            for (PropertyDescriptor propertyDescriptor : propertyDescriptors) {
-                if (propertyDescriptor.getReadMethod().equals(method)) {
-                    return propertyDescriptor.getName();
+            for (PropertyDescriptor propertyDescriptor : beanInfo.getPropertyDescriptors()) {
+                if (propertyDescriptor.getReadMethod() != null) {
+                    result.put(propertyDescriptor.getReadMethod(), propertyDescriptor.getName());
                 }
             }
         } catch (IntrospectionException e) {
             //ignore
         }
+        return result;
+    }
 
-        return method.getName();
+    private ExceptionClassResolution getExceptionClassResolution(Class<?> exceptionClass) {
+        return getResolutionCache().get(exceptionClass);
     }
 
-    private HttpStatus getHttpStatus(Throwable exception) {
-        ResponseStatus responseStatus = AnnotationUtils.getAnnotation(exception.getClass(), ResponseStatus.class);
-        if (responseStatus != null) {
-            return responseStatus.value();
+    private ResolutionCache getResolutionCache() {
+        ResolutionCache cache = resolutionCache;
+        ErrorHandlingProperties snapshot = properties.snapshot();
+        if (cache.properties != snapshot) {
+            cache = new ResolutionCache(snapshot);
+            resolutionCache = cache;
         }
+        return cache;
+    }
 
-        if (exception instanceof ResponseStatusException) {
-            return ((ResponseStatusException) exception).getStatus();
+    /**
+     * Returns the HTTP status for the given exception class, or <code>null</code> if the
+     * status depends on the exception instance (which is the case for {@link ResponseStatusException}).
+     */
+    private HttpStatus resolveHttpStatus(Class<?> exceptionClass,
+                                         ErrorHandlingProperties properties) {
+        ExceptionMetadata metadata = exceptionMetadata.get(exceptionClass);
+        if (metadata != null) {
+            if (metadata.getResponseStatus() != null) {
+                return metadata.getResponseStatus();
+            }
+        } else {
+            ResponseStatus responseStatus = AnnotationUtils.getAnnotation(exceptionClass, ResponseStatus.class);
+            if (responseStatus != null) {
+                return responseStatus.value();
+            }
+        }
+
+        if (ResponseStatusException.class.isAssignableFrom(exceptionClass)) {
+            return null;
         }
 
-        return properties.getHttpStatuses().getOrDefault(exception.getClass().getName(), HttpStatus.INTERNAL_SERVER_ERROR);
+        HttpStatus configuredStatus = ExceptionHierarchyMapping.of(properties).getHttpStatus(exceptionClass);
+        return configuredStatus != null ? configuredStatus : HttpStatus.INTERNAL_SERVER_ERROR;
     }
 
-    private String getErrorCode(Throwable exception) {
-        ResponseErrorCode errorCodeAnnotation = AnnotationUtils.getAnnotation(exception.getClass(), ResponseErrorCode.class);
+    private String resolveErrorCode(Class<?> exceptionClass,
+                                    ErrorHandlingProperties properties) {
+        ExceptionMetadata metadata = exceptionMetadata.get(exceptionClass);
+        String annotatedCode;
+        if (metadata != null) {
+            annotatedCode = metadata.getResponseErrorCode();
+        } else {
+            ResponseErrorCode errorCodeAnnotation = AnnotationUtils.getAnnotation(exceptionClass, ResponseErrorCode.class);
+            annotatedCode = errorCodeAnnotation != null ? errorCodeAnnotation.value() : null;
+        }
         String code;
-        if (errorCodeAnnotation != null) {
-            code = errorCodeAnnotation.value();
+        if (annotatedCode != null) {
+            code = annotatedCode;
         } else {
-            String exceptionClassName = exception.getClass().getName();
-            if (properties.getCodes().containsKey(exceptionClassName)) {
-                code = replaceCodeWithConfiguredOverrideIfPresent(exceptionClassName);
+            String configuredCode = ExceptionHierarchyMapping.of(properties).getCode(exceptionClass);
+            if (configuredCode != null) {
+                code = configuredCode;
             } else {
                 switch (properties.getDefaultErrorCodeStrategy()) {
                     case FULL_QUALIFIED_NAME:
-                        code = exception.getClass().getName();
+                        code = exceptionClass.getName();
                         break;
                     case ALL_CAPS:
-                        code = convertToAllCaps(exception.getClass().getSimpleName());
+                        code = convertToAllCaps(exceptionClass.getSimpleName());
                         break;
                     default:
                         throw new IllegalArgumentException("Unknown default error code strategy: " + properties.getDefaultErrorCodeStrategy());
@@ -158,13 +263,81 @@ public class DefaultFallbackApiExceptionHandler implements FallbackApiExceptionH
     }
 
     private String convertToAllCaps(String exceptionClassName) {
-        String result = exceptionClassName.replaceFirst("Exception$", "");
-        result = result.replaceAll("([a-z])([A-Z]+)", "$1_$2").toUpperCase(Locale.ENGLISH);
+        String result = EXCEPTION_SUFFIX.matcher(exceptionClassName).replaceFirst("");
+        result = CAMEL_CASE_BOUNDARY.matcher(result).replaceAll("$1_$2").toUpperCase(Locale.ENGLISH);
         return result;
     }
 
-    private String replaceCodeWithConfiguredOverrideIfPresent(String code) {
-        return properties.getCodes().getOrDefault(code, code);
+    /**
+     * @return the metadata of the exception class if the properties can be added with it, <code>null</code> otherwise
+     */
+    private ExceptionMetadata getPropertiesMetadata(Class<?> exceptionClass) {
+        ExceptionMetadata metadata = exceptionMetadata.get(exceptionClass);
+        return metadata != null && metadata.isResponseErrorPropertiesAccessible() ? metadata : null;
+    }
+
+    /**
+     * Load the metadata that the {@link io.github.wimdeblauwe.errorhandlingspringbootstarter.processor.ExceptionMetadataProcessor}
+     * has generated. Entries that can not be loaded (e.g. because the exception class was removed) are skipped.
+     */
+    private static List<ExceptionMetadata> loadExceptionMetadata() {
+        List<ExceptionMetadata> result = new ArrayList<>();
+        Iterator<ExceptionMetadata> iterator = ServiceLoader.load(ExceptionMetadata.class).iterator();
+        while (true) {
+            try {
+                if (!iterator.hasNext()) {
+                    break;
+                }
+                result.add(iterator.next());
+            } catch (ServiceConfigurationError e) {
+                LOGGER.warn("Unable to load exception metadata: {}", e.getMessage());
+            }
+        }
+        LOGGER.debug("Loaded exception metadata for {} exception classes", result.size());
+        return result;
     }
 
+    /**
+     * Cache of the resolved HTTP status and error code per exception class.
+     * A new cache is created for each snapshot of the {@link ErrorHandlingProperties}.
+     */
+    private final class ResolutionCache extends ClassValue<ExceptionClassResolution> {
+        private final ErrorHandlingProperties properties;
+
+        private ResolutionCache(ErrorHandlingProperties properties) {
+            this.properties = properties;
+        }
+
+        @Override
+        protected ExceptionClassResolution computeValue(Class<?> exceptionClass) {
+            return new ExceptionClassResolution(resolveHttpStatus(exceptionClass, properties),
+                                                resolveErrorCode(exceptionClass, properties));
+        }
+    }
+
+    private static final class ExceptionClassResolution {
+        private final HttpStatus httpStatus;
+        private final String errorCode;
+
+        private ExceptionClassResolution(HttpStatus httpStatus,
+                                         String errorCode) {
+            this.httpStatus = httpStatus;
+            this.errorCode = errorCode;
+        }
+
+        private HttpStatus getHttpStatus(Throwable exception) {
+            if (httpStatus != null) {
+                return httpStatus;
+            }
+            return ((ResponseStatusException) exception).getStatus();
+        }
+
+        private boolean isHttpStatusInstanceDependent() {
+            return httpStatus == null;
+        }
+
+        private String getErrorCode() {
+            return errorCode;
+        }
+    }
 }
@@ -0,0 +1,108 @@
+package io.github.wimdeblauwe.errorhandlingspringbootstarter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.wimdeblauwe.errorhandlingspringbootstarter.handler.*;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfigurationPackages;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.MessageSource;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.util.List;
+
+/**
+ * The beans that are used by both the Spring MVC ({@link ErrorHandlingConfiguration}) and the
+ * Spring WebFlux ({@link ReactiveErrorHandlingConfiguration}) integration.
+ */
+@Configuration
+public class ErrorHandlingCommonConfiguration {
+
+    @Bean
+    @ConditionalOnProperty("error.handling.async-logging.enabled")
+    public AsyncExceptionLogger asyncExceptionLogger(ErrorHandlingProperties properties) {
+        return new AsyncExceptionLogger(properties.getAsyncLogging().getQueueCapacity());
+    }
+
+    @Bean
+    @ConditionalOnProperty("error.handling.overload.enabled")
+    public OverloadProtection overloadProtection(ErrorHandlingProperties properties) {
+        ErrorHandlingProperties.Overload overload = properties.getOverload();
+        return new OverloadProtection(overload.getThreshold(), overload.getWindow(), overload.getLogSampleRate());
+    }
+
+    @Bean
+    @ConditionalOnClass(name = ErrorHandlingRefreshListener.ENVIRONMENT_CHANGE_EVENT)
+    ErrorHandlingRefreshListener errorHandlingRefreshListener(ErrorHandlingProperties properties,
+                                                              Environment environment,
+                                                              ObjectProvider<Refreshable> refreshables) {
+        return new ErrorHandlingRefreshListener(properties, environment, refreshables);
+    }
+
+    /**
+     * Without configured base packages, the packages of the application (those of the <code>@SpringBootApplication</code> class) are scanned.
+     */
+    @Bean
+    @ConditionalOnProperty("error.handling.warm-up.enabled")
+    ErrorHandlingWarmUpListener errorHandlingWarmUpListener(ErrorHandlingProperties properties,
+                                                            BeanFactory beanFactory,
+                                                            ObjectProvider<ExceptionClassWarmUp> warmUps,
+                                                            ObjectProvider<ObjectMapper> objectMapper) {
+        List<String> basePackages = properties.getWarmUp().getBasePackages();
+        if (basePackages.isEmpty() && AutoConfigurationPackages.has(beanFactory)) {
+            basePackages = AutoConfigurationPackages.get(beanFactory);
+        }
+        return new ErrorHandlingWarmUpListener(basePackages, warmUps, objectMapper);
+    }
+
+    @Bean
+    @ConditionalOnProperty("error.handling.use-message-source")
+    public ErrorMessageLocalizer errorMessageLocalizer(MessageSource messageSource) {
+        return new ErrorMessageLocalizer(messageSource);
+    }
+
+    @Bean
+    public FallbackApiExceptionHandler defaultHandler(ErrorHandlingProperties properties) {
+        return new DefaultFallbackApiExceptionHandler(properties);
+    }
+
+    @Bean
+    public TypeMismatchApiExceptionHandler typeMismatchApiExceptionHandler(ErrorHandlingProperties properties) {
+        return new TypeMismatchApiExceptionHandler(properties);
+    }
+
+    @Bean
+    public ConstraintViolationApiExceptionHandler constraintViolationApiExceptionHandler(ErrorHandlingProperties properties) {
+        return new ConstraintViolationApiExceptionHandler(properties);
+    }
+
+    @Bean
+    public HttpMessageNotReadableApiExceptionHandler httpMessageNotReadableApiExceptionHandler(ErrorHandlingProperties properties) {
+        return new HttpMessageNotReadableApiExceptionHandler(properties);
+    }
+
+    @Bean
+    public MethodArgumentNotValidApiExceptionHandler methodArgumentNotValidApiExceptionHandler(ErrorHandlingProperties properties) {
+        return new MethodArgumentNotValidApiExceptionHandler(properties);
+    }
+
+    @Bean
+    @ConditionalOnClass(name = "org.springframework.security.access.AccessDeniedException")
+    public SpringSecurityApiExceptionHandler springSecurityApiExceptionHandler(ErrorHandlingProperties properties) {
+        return new SpringSecurityApiExceptionHandler(properties);
+    }
+
+    @Bean
+    @ConditionalOnClass(name = "org.springframework.orm.ObjectOptimisticLockingFailureException")
+    public ObjectOptimisticLockingFailureApiExceptionHandler objectOptimisticLockingFailureApiExceptionHandler(ErrorHandlingProperties properties) {
+        return new ObjectOptimisticLockingFailureApiExceptionHandler(properties);
+    }
+
+    @Bean
+    public ApiErrorResponseSerializer apiErrorResponseSerializer(ErrorHandlingProperties properties) {
+        return new ApiErrorResponseSerializer(properties);
+    }
+}
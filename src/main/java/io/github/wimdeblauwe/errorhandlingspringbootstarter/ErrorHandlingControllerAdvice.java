@@ -1,8 +1,9 @@
 package io.github.wimdeblauwe.errorhandlingspringbootstarter;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.core.annotation.AnnotationAwareOrderComparator;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -13,59 +14,56 @@ import java.util.List;
 import java.util.Locale;
 
 @ControllerAdvice(annotations = RestController.class)
-public class ErrorHandlingControllerAdvice {
+public class ErrorHandlingControllerAdvice implements ExceptionClassWarmUp, DisposableBean {
     private static final Logger LOGGER = LoggerFactory.getLogger(ErrorHandlingControllerAdvice.class);
 
-    private final ErrorHandlingProperties properties;
-    private final List<ApiExceptionHandler> handlers;
-    private final FallbackApiExceptionHandler fallbackHandler;
+    private final ApiExceptionHandlerChain handlerChain;
 
     public ErrorHandlingControllerAdvice(ErrorHandlingProperties properties,
                                          List<ApiExceptionHandler> handlers,
                                          FallbackApiExceptionHandler fallbackHandler) {
-        this.properties = properties;
-        this.handlers = handlers;
-        this.fallbackHandler = fallbackHandler;
-        this.handlers.sort(AnnotationAwareOrderComparator.INSTANCE);
-
-        LOGGER.info("Error Handling Spring Boot Starter active with {} handlers", this.handlers.size());
-        LOGGER.debug("Handlers: {}", this.handlers);
+        this(properties, handlers, fallbackHandler, null, ErrorHandlingMetrics.NONE, null, null, null);
     }
 
-    @ExceptionHandler
-    public ResponseEntity<?> handleException(Throwable exception, WebRequest webRequest, Locale locale) {
-        LOGGER.debug("webRequest: {}", webRequest);
-        LOGGER.debug("locale: {}", locale);
-        logException(exception);
+    /**
+     * Constructor used by the auto-configuration, the optional collaborators can be <code>null</code>.
+     */
+    ErrorHandlingControllerAdvice(ErrorHandlingProperties properties,
+                                  List<ApiExceptionHandler> handlers,
+                                  FallbackApiExceptionHandler fallbackHandler,
+                                  ObjectMapper objectMapper,
+                                  ErrorHandlingMetrics metrics,
+                                  AsyncExceptionLogger asyncExceptionLogger,
+                                  ErrorMessageLocalizer messageLocalizer,
+                                  OverloadProtection overloadProtection) {
+        this.handlerChain = new ApiExceptionHandlerChain(properties,
+                                                         handlers,
+                                                         fallbackHandler,
+                                                         objectMapper,
+                                                         metrics,
+                                                         asyncExceptionLogger,
+                                                         messageLocalizer,
+                                                         overloadProtection,
+                                                         LOGGER);
 
-        ApiErrorResponse errorResponse = null;
-        for (ApiExceptionHandler handler : handlers) {
-            if (handler.canHandle(exception)) {
-                errorResponse = handler.handle(exception);
-                break;
-            }
-        }
+        LOGGER.info("Error Handling Spring Boot Starter active with {} handlers", handlers.size());
+        LOGGER.debug("Handlers: {}", handlers);
+    }
 
-        if (errorResponse == null) {
-            errorResponse = fallbackHandler.handle(exception);
-        }
+    @Override
+    public void warmUp(Class<? extends Throwable> exceptionClass) {
+        handlerChain.warmUp(exceptionClass);
+    }
 
-        return ResponseEntity.status(errorResponse.getHttpStatus())
-                             .body(errorResponse);
+    @Override
+    public void destroy() {
+        handlerChain.close();
     }
 
-    private void logException(Throwable exception) {
-        if (properties.getFullStacktraceClasses().contains(exception.getClass())) {
-            LOGGER.error(exception.getMessage(), exception);
-        } else {
-            switch (properties.getExceptionLogging()) {
-                case WITH_STACKTRACE:
-                    LOGGER.error(exception.getMessage(), exception);
-                    break;
-                case MESSAGE_ONLY:
-                    LOGGER.error(exception.getMessage());
-                    break;
-            }
-        }
+    @ExceptionHandler
+    public ResponseEntity<?> handleException(Throwable exception, WebRequest webRequest, Locale locale) {
+        LOGGER.debug("webRequest: {}", webRequest);
+        LOGGER.debug("locale: {}", locale);
+        return handlerChain.handle(exception, locale);
     }
 }
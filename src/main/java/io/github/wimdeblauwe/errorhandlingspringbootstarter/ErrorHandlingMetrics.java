@@ -0,0 +1,46 @@
+package io.github.wimdeblauwe.errorhandlingspringbootstarter;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Records metrics about the exceptions that are handled by the {@link ErrorHandlingControllerAdvice}.
+ */
+public interface ErrorHandlingMetrics {
+
+    /**
+     * Implementation that does not record anything.
+     */
+    ErrorHandlingMetrics NONE = new ErrorHandlingMetrics() {
+        @Override
+        public long startTime() {
+            return 0;
+        }
+
+        @Override
+        public void record(long startTime,
+                           String code,
+                           HttpStatus httpStatus,
+                           Class<?> handlerClass) {
+        }
+    };
+
+    /**
+     * Called when the handling of an exception starts.
+     *
+     * @return the start time that should be passed to {@link #record(long, String, HttpStatus, Class)}
+     */
+    long startTime();
+
+    /**
+     * Called when the handling of an exception is done.
+     *
+     * @param startTime    the value that was returned from {@link #startTime()}
+     * @param code         the error code of the response
+     * @param httpStatus   the HTTP status of the response
+     * @param handlerClass the class of the handler that created the response
+     */
+    void record(long startTime,
+                String code,
+                HttpStatus httpStatus,
+                Class<?> handlerClass);
+}
@@ -0,0 +1,47 @@
+package io.github.wimdeblauwe.errorhandlingspringbootstarter;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnWebApplication
+@ConditionalOnClass(MeterRegistry.class)
+@ConditionalOnBean(MeterRegistry.class)
+@ConditionalOnProperty(value = {"error.handling.enabled", "error.handling.metrics.enabled"}, matchIfMissing = true)
+@AutoConfigureAfter(name = {"org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration",
+        "org.springframework.boot.actuate.autoconfigure.metrics.export.simple.SimpleMetricsExportAutoConfiguration"})
+public class ErrorHandlingMetricsConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public ErrorHandlingMetrics errorHandlingMetrics(MeterRegistry meterRegistry) {
+        return new MicrometerErrorHandlingMetrics(meterRegistry);
+    }
+
+    @Bean
+    public MeterBinder asyncExceptionLoggerMetrics(ObjectProvider<AsyncExceptionLogger> asyncExceptionLogger) {
+        return meterRegistry -> asyncExceptionLogger.ifAvailable(
+                logger -> FunctionCounter.builder("error.handling.logging.dropped", logger, AsyncExceptionLogger::getDroppedCount)
+                                         .description("Number of exceptions that were not logged because the logging queue was full")
+                                         .register(meterRegistry));
+    }
+
+    @Bean
+    public MeterBinder overloadProtectionMetrics(ObjectProvider<OverloadProtection> overloadProtection) {
+        return meterRegistry -> overloadProtection.ifAvailable(
+                protection -> Gauge.builder("error.handling.overload", protection, p -> p.isOverloaded() ? 1 : 0)
+                                   .description("1 if the error handling is in overload mode, 0 otherwise")
+                                   .register(meterRegistry));
+    }
+}
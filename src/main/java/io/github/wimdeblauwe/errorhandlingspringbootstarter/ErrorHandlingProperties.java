@@ -4,31 +4,93 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The configuration of the error handling.
+ * <p>
+ * This bean is the target of the binding of the <code>error.handling</code> properties and can be changed
+ * programmatically. The components of the error handling do not read it directly, they read an immutable
+ * copy of it via {@link #snapshot()}. That way, a component never sees a partially bound configuration and
+ * all components see the same configuration.
+ */
 @ConfigurationProperties("error.handling")
 @Component
 public class ErrorHandlingProperties {
+    private static final AtomicLong SNAPSHOT_REVISIONS = new AtomicLong();
+
+    private final AtomicLong revision = new AtomicLong();
+
+    private final boolean frozen;
+
+    private volatile Snapshot snapshot;
+
+    private volatile boolean publishing;
+
     private boolean enabled = true;
 
-    private JsonFieldNames jsonFieldNames = new JsonFieldNames();
+    private JsonFieldNames jsonFieldNames = trackModifications(new JsonFieldNames());
 
     private ExceptionLogging exceptionLogging = ExceptionLogging.MESSAGE_ONLY;
 
     private List<Class<? extends Throwable>> fullStacktraceClasses = new ArrayList<>();
 
+    private LogRateLimit logRateLimit = trackModifications(new LogRateLimit());
+
+    private AsyncLogging asyncLogging = trackModifications(new AsyncLogging());
+
+    private Overload overload = trackModifications(new Overload());
+
+    private TraceId traceId = trackModifications(new TraceId());
+
+    private Unwrap unwrap = trackModifications(new Unwrap());
+
     private DefaultErrorCodeStrategy defaultErrorCodeStrategy = DefaultErrorCodeStrategy.ALL_CAPS;
 
     private boolean httpStatusInJsonResponse = false;
 
-    private Map<String, HttpStatus> httpStatuses = new HashMap<>();
+    private boolean cacheConstantResponses = false;
+
+    private int maxFieldErrors = -1;
+
+    private int maxGlobalErrors = -1;
+
+    private boolean useMessageSource = false;
+
+    private int maxMessageLength = -1;
+
+    private boolean includeNestedCauseMessage = true;
+
+    private Metrics metrics = trackModifications(new Metrics());
 
-    private Map<String, String> codes = new HashMap<>();
+    private WarmUp warmUp = trackModifications(new WarmUp());
 
-    private Map<String, String> messages = new HashMap<>();
+    private Reactive reactive = trackModifications(new Reactive());
+
+    private ValueRendering valueRendering = trackModifications(new ValueRendering());
+
+    private Map<String, HttpStatus> httpStatuses = trackModifications(new HashMap<>());
+
+    private Map<String, String> codes = trackModifications(new HashMap<>());
+
+    private Map<String, String> messages = trackModifications(new HashMap<>());
+
+    private volatile ExceptionHierarchyMapping exceptionHierarchyMapping;
+
+    public ErrorHandlingProperties() {
+        this(false);
+    }
+
+    private ErrorHandlingProperties(boolean frozen) {
+        this.frozen = frozen;
+    }
 
     public boolean isEnabled() {
         return enabled;
@@ -36,6 +98,7 @@ public class ErrorHandlingProperties {
 
     public void setEnabled(boolean enabled) {
         this.enabled = enabled;
+        incrementRevision();
     }
 
     public JsonFieldNames getJsonFieldNames() {
@@ -43,7 +106,8 @@ public class ErrorHandlingProperties {
     }
 
     public void setJsonFieldNames(JsonFieldNames jsonFieldNames) {
-        this.jsonFieldNames = jsonFieldNames;
+        this.jsonFieldNames = trackModifications(jsonFieldNames);
+        incrementRevision();
     }
 
     public ExceptionLogging getExceptionLogging() {
@@ -52,6 +116,7 @@ public class ErrorHandlingProperties {
 
     public void setExceptionLogging(ExceptionLogging exceptionLogging) {
         this.exceptionLogging = exceptionLogging;
+        incrementRevision();
     }
 
     public List<Class<? extends Throwable>> getFullStacktraceClasses() {
@@ -60,6 +125,52 @@ public class ErrorHandlingProperties {
 
     public void setFullStacktraceClasses(List<Class<? extends Throwable>> fullStacktraceClasses) {
         this.fullStacktraceClasses = fullStacktraceClasses;
+        incrementRevision();
+    }
+
+    public LogRateLimit getLogRateLimit() {
+        return logRateLimit;
+    }
+
+    public void setLogRateLimit(LogRateLimit logRateLimit) {
+        this.logRateLimit = trackModifications(logRateLimit);
+        incrementRevision();
+    }
+
+    public AsyncLogging getAsyncLogging() {
+        return asyncLogging;
+    }
+
+    public void setAsyncLogging(AsyncLogging asyncLogging) {
+        this.asyncLogging = trackModifications(asyncLogging);
+        incrementRevision();
+    }
+
+    public Overload getOverload() {
+        return overload;
+    }
+
+    public void setOverload(Overload overload) {
+        this.overload = trackModifications(overload);
+        incrementRevision();
+    }
+
+    public TraceId getTraceId() {
+        return traceId;
+    }
+
+    public void setTraceId(TraceId traceId) {
+        this.traceId = trackModifications(traceId);
+        incrementRevision();
+    }
+
+    public Unwrap getUnwrap() {
+        return unwrap;
+    }
+
+    public void setUnwrap(Unwrap unwrap) {
+        this.unwrap = trackModifications(unwrap);
+        incrementRevision();
     }
 
     public DefaultErrorCodeStrategy getDefaultErrorCodeStrategy() {
@@ -68,6 +179,7 @@ public class ErrorHandlingProperties {
 
     public void setDefaultErrorCodeStrategy(DefaultErrorCodeStrategy defaultErrorCodeStrategy) {
         this.defaultErrorCodeStrategy = defaultErrorCodeStrategy;
+        incrementRevision();
     }
 
     public boolean isHttpStatusInJsonResponse() {
@@ -76,6 +188,97 @@ public class ErrorHandlingProperties {
 
     public void setHttpStatusInJsonResponse(boolean httpStatusInJsonResponse) {
         this.httpStatusInJsonResponse = httpStatusInJsonResponse;
+        incrementRevision();
+    }
+
+    public boolean isCacheConstantResponses() {
+        return cacheConstantResponses;
+    }
+
+    public void setCacheConstantResponses(boolean cacheConstantResponses) {
+        this.cacheConstantResponses = cacheConstantResponses;
+        incrementRevision();
+    }
+
+    public int getMaxFieldErrors() {
+        return maxFieldErrors;
+    }
+
+    public void setMaxFieldErrors(int maxFieldErrors) {
+        this.maxFieldErrors = maxFieldErrors;
+        incrementRevision();
+    }
+
+    public int getMaxGlobalErrors() {
+        return maxGlobalErrors;
+    }
+
+    public void setMaxGlobalErrors(int maxGlobalErrors) {
+        this.maxGlobalErrors = maxGlobalErrors;
+        incrementRevision();
+    }
+
+    public boolean isUseMessageSource() {
+        return useMessageSource;
+    }
+
+    public void setUseMessageSource(boolean useMessageSource) {
+        this.useMessageSource = useMessageSource;
+        incrementRevision();
+    }
+
+    public int getMaxMessageLength() {
+        return maxMessageLength;
+    }
+
+    public void setMaxMessageLength(int maxMessageLength) {
+        this.maxMessageLength = maxMessageLength;
+        incrementRevision();
+    }
+
+    public boolean isIncludeNestedCauseMessage() {
+        return includeNestedCauseMessage;
+    }
+
+    public void setIncludeNestedCauseMessage(boolean includeNestedCauseMessage) {
+        this.includeNestedCauseMessage = includeNestedCauseMessage;
+        incrementRevision();
+    }
+
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    public void setMetrics(Metrics metrics) {
+        this.metrics = trackModifications(metrics);
+        incrementRevision();
+    }
+
+    public WarmUp getWarmUp() {
+        return warmUp;
+    }
+
+    public void setWarmUp(WarmUp warmUp) {
+        this.warmUp = trackModifications(warmUp);
+        incrementRevision();
+    }
+
+    public Reactive getReactive() {
+        return reactive;
+    }
+
+    public void setReactive(Reactive reactive) {
+        this.reactive = trackModifications(reactive);
+        incrementRevision();
+    }
+
+    public ValueRendering getValueRendering() {
+        return valueRendering;
+    }
+
+    public void setValueRendering(ValueRendering valueRendering) {
+        this.valueRendering = trackModifications(valueRendering);
+        incrementRevision();
     }
 
     public Map<String, HttpStatus> getHttpStatuses() {
@@ -83,7 +286,8 @@ public class ErrorHandlingProperties {
     }
 
     public void setHttpStatuses(Map<String, HttpStatus> httpStatuses) {
-        this.httpStatuses = httpStatuses;
+        this.httpStatuses = trackModifications(httpStatuses);
+        incrementRevision();
     }
 
     public Map<String, String> getCodes() {
@@ -91,7 +295,8 @@ public class ErrorHandlingProperties {
     }
 
     public void setCodes(Map<String, String> codes) {
-        this.codes = codes;
+        this.codes = trackModifications(codes);
+        incrementRevision();
     }
 
     public Map<String, String> getMessages() {
@@ -99,7 +304,193 @@ public class ErrorHandlingProperties {
     }
 
     public void setMessages(Map<String, String> messages) {
-        this.messages = messages;
+        this.messages = trackModifications(messages);
+        incrementRevision();
+    }
+
+    /**
+     * Returns a number that changes each time one of the properties is changed.
+     * This allows to detect if values that are derived from these properties need to be calculated again.
+     * Each snapshot has a revision of its own, which is different from the revision of all other snapshots.
+     *
+     * @return the current revision of the properties
+     */
+    public long getRevision() {
+        return revision.get();
+    }
+
+    /**
+     * Returns an immutable copy of the current properties. All values that are read while handling an exception
+     * should be read from the same snapshot, so they are consistent with each other.
+     * <p>
+     * A new snapshot is created on first use after the properties have been changed. While the properties of a
+     * configuration refresh are published (See {@link ErrorHandlingRefreshListener}), the previous snapshot is returned. Note
+     * that the lists of the properties need to be replaced via their setter for the change to be noticed.
+     *
+     * @return the snapshot of the properties, or this instance if it already is a snapshot
+     */
+    public ErrorHandlingProperties snapshot() {
+        if (frozen) {
+            return this;
+        }
+        Snapshot current = snapshot;
+        if (current == null || (current.sourceRevision != revision.get() && !publishing)) {
+            current = createSnapshot();
+        }
+        return current.properties;
+    }
+
+    /**
+     * Replaces the properties with the given ones, which were bound from scratch, and makes them the current snapshot.
+     * Contrary to binding this instance again, this removes the entries of the maps that are no longer configured.
+     */
+    synchronized void publish(ErrorHandlingProperties properties) {
+        publishing = true;
+        try {
+            copyFrom(properties);
+            snapshot = new Snapshot(revision.get(), new ErrorHandlingProperties(properties));
+        } finally {
+            publishing = false;
+        }
+    }
+
+    /**
+     * The mapping is kept here so it is shared by all components that use the same snapshot (See {@link ExceptionHierarchyMapping#of(ErrorHandlingProperties)}).
+     * These accessors are package-private, so they are not bound as configuration properties.
+     */
+    ExceptionHierarchyMapping getExceptionHierarchyMapping() {
+        return exceptionHierarchyMapping;
+    }
+
+    void setExceptionHierarchyMapping(ExceptionHierarchyMapping exceptionHierarchyMapping) {
+        this.exceptionHierarchyMapping = exceptionHierarchyMapping;
+    }
+
+    /**
+     * Creates a snapshot of the given properties.
+     */
+    private ErrorHandlingProperties(ErrorHandlingProperties source) {
+        this.frozen = true;
+        this.revision.set(SNAPSHOT_REVISIONS.incrementAndGet());
+        this.enabled = source.enabled;
+        this.jsonFieldNames = source.jsonFieldNames.copy();
+        this.exceptionLogging = source.exceptionLogging;
+        this.fullStacktraceClasses = Collections.unmodifiableList(new ArrayList<>(source.fullStacktraceClasses));
+        this.logRateLimit = source.logRateLimit.copy();
+        this.asyncLogging = source.asyncLogging.copy();
+        this.overload = source.overload.copy();
+        this.traceId = source.traceId.copy();
+        this.traceId.mdcKeys = Collections.unmodifiableList(this.traceId.mdcKeys);
+        this.unwrap = source.unwrap.copy();
+        this.unwrap.wrapperClasses = Collections.unmodifiableList(this.unwrap.wrapperClasses);
+        this.defaultErrorCodeStrategy = source.defaultErrorCodeStrategy;
+        this.httpStatusInJsonResponse = source.httpStatusInJsonResponse;
+        this.cacheConstantResponses = source.cacheConstantResponses;
+        this.maxFieldErrors = source.maxFieldErrors;
+        this.maxGlobalErrors = source.maxGlobalErrors;
+        this.useMessageSource = source.useMessageSource;
+        this.maxMessageLength = source.maxMessageLength;
+        this.includeNestedCauseMessage = source.includeNestedCauseMessage;
+        this.metrics = source.metrics.copy();
+        this.warmUp = source.warmUp.copy();
+        this.warmUp.basePackages = Collections.unmodifiableList(this.warmUp.basePackages);
+        this.reactive = source.reactive.copy();
+        this.reactive.pathPatterns = Collections.unmodifiableList(this.reactive.pathPatterns);
+        this.valueRendering = source.valueRendering.copy();
+        this.httpStatuses = Collections.unmodifiableMap(copyOf(source.httpStatuses));
+        this.codes = Collections.unmodifiableMap(copyOf(source.codes));
+        this.messages = Collections.unmodifiableMap(copyOf(source.messages));
+        for (NestedProperties nestedProperties : Arrays.asList(jsonFieldNames, logRateLimit, asyncLogging, overload, traceId,
+                                                               unwrap, metrics, warmUp, reactive, valueRendering)) {
+            nestedProperties.onModification(this::incrementRevision);
+        }
+    }
+
+    private synchronized Snapshot createSnapshot() {
+        Snapshot current = snapshot;
+        long sourceRevision = revision.get();
+        if (current == null || (current.sourceRevision != sourceRevision && !publishing)) {
+            current = new Snapshot(sourceRevision, new ErrorHandlingProperties(this));
+            snapshot = current;
+        }
+        return current;
+    }
+
+    private void copyFrom(ErrorHandlingProperties source) {
+        setEnabled(source.isEnabled());
+        setJsonFieldNames(source.getJsonFieldNames().copy());
+        setExceptionLogging(source.getExceptionLogging());
+        setFullStacktraceClasses(new ArrayList<>(source.getFullStacktraceClasses()));
+        setLogRateLimit(source.getLogRateLimit().copy());
+        setAsyncLogging(source.getAsyncLogging().copy());
+        setOverload(source.getOverload().copy());
+        setTraceId(source.getTraceId().copy());
+        setUnwrap(source.getUnwrap().copy());
+        setDefaultErrorCodeStrategy(source.getDefaultErrorCodeStrategy());
+        setHttpStatusInJsonResponse(source.isHttpStatusInJsonResponse());
+        setCacheConstantResponses(source.isCacheConstantResponses());
+        setMaxFieldErrors(source.getMaxFieldErrors());
+        setMaxGlobalErrors(source.getMaxGlobalErrors());
+        setUseMessageSource(source.isUseMessageSource());
+        setMaxMessageLength(source.getMaxMessageLength());
+        setIncludeNestedCauseMessage(source.isIncludeNestedCauseMessage());
+        setMetrics(source.getMetrics().copy());
+        setWarmUp(source.getWarmUp().copy());
+        setReactive(source.getReactive().copy());
+        setValueRendering(source.getValueRendering().copy());
+        setHttpStatuses(copyOf(source.getHttpStatuses()));
+        setCodes(copyOf(source.getCodes()));
+        setMessages(copyOf(source.getMessages()));
+    }
+
+    private void incrementRevision() {
+        if (frozen) {
+            throw new UnsupportedOperationException("A snapshot of the error handling properties can not be changed");
+        }
+        revision.incrementAndGet();
+    }
+
+    private <K, V> Map<K, V> trackModifications(Map<K, V> map) {
+        return new ModificationTrackingMap<>(map, this::incrementRevision);
+    }
+
+    private <T extends NestedProperties> T trackModifications(T nestedProperties) {
+        nestedProperties.onModification(this::incrementRevision);
+        return nestedProperties;
+    }
+
+    private static <K, V> Map<K, V> copyOf(Map<K, V> map) {
+        if (map instanceof ModificationTrackingMap) {
+            return ((ModificationTrackingMap<K, V>) map).copy();
+        }
+        return new HashMap<>(map);
+    }
+
+    private static class Snapshot {
+        private final long sourceRevision;
+        private final ErrorHandlingProperties properties;
+
+        private Snapshot(long sourceRevision,
+                         ErrorHandlingProperties properties) {
+            this.sourceRevision = sourceRevision;
+            this.properties = properties;
+        }
+    }
+
+    /**
+     * Base class of the nested properties, so changing them changes the revision of the properties they belong to.
+     */
+    abstract static class NestedProperties {
+        private Runnable modificationListener = () -> {
+        };
+
+        void onModification(Runnable modificationListener) {
+            this.modificationListener = modificationListener;
+        }
+
+        void modified() {
+            modificationListener.run();
+        }
     }
 
     enum ExceptionLogging {
@@ -113,11 +504,17 @@ public class ErrorHandlingProperties {
         ALL_CAPS
     }
 
-    public static class JsonFieldNames {
+    enum LogRateLimitKey {
+        ERROR_CODE,
+        EXCEPTION_CLASS
+    }
+
+    public static class JsonFieldNames extends NestedProperties {
         private String code = "code";
         private String message = "message";
         private String fieldErrors = "fieldErrors";
         private String globalErrors = "globalErrors";
+        private String traceId = "traceId";
 
         public String getCode() {
             return code;
@@ -125,6 +522,7 @@ public class ErrorHandlingProperties {
 
         public void setCode(String code) {
             this.code = code;
+            modified();
         }
 
         public String getMessage() {
@@ -133,6 +531,7 @@ public class ErrorHandlingProperties {
 
         public void setMessage(String message) {
             this.message = message;
+            modified();
         }
 
         public String getFieldErrors() {
@@ -141,6 +540,7 @@ public class ErrorHandlingProperties {
 
         public void setFieldErrors(String fieldErrors) {
             this.fieldErrors = fieldErrors;
+            modified();
         }
 
         public String getGlobalErrors() {
@@ -149,6 +549,369 @@ public class ErrorHandlingProperties {
 
         public void setGlobalErrors(String globalErrors) {
             this.globalErrors = globalErrors;
+            modified();
+        }
+
+        public String getTraceId() {
+            return traceId;
+        }
+
+        public void setTraceId(String traceId) {
+            this.traceId = traceId;
+            modified();
+        }
+
+        JsonFieldNames copy() {
+            JsonFieldNames result = new JsonFieldNames();
+            result.code = code;
+            result.message = message;
+            result.fieldErrors = fieldErrors;
+            result.globalErrors = globalErrors;
+            result.traceId = traceId;
+            return result;
+        }
+    }
+
+    public static class Metrics extends NestedProperties {
+        private boolean enabled = true;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+            modified();
+        }
+
+        Metrics copy() {
+            Metrics result = new Metrics();
+            result.enabled = enabled;
+            return result;
+        }
+    }
+
+    public static class ValueRendering extends NestedProperties {
+        private boolean enabled = false;
+        private int maxStringLength = 1000;
+        private int maxCollectionElements = 100;
+        private int maxDepth = 3;
+        private boolean summarizeBinary = true;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+            modified();
+        }
+
+        public int getMaxStringLength() {
+            return maxStringLength;
+        }
+
+        public void setMaxStringLength(int maxStringLength) {
+            this.maxStringLength = maxStringLength;
+            modified();
+        }
+
+        public int getMaxCollectionElements() {
+            return maxCollectionElements;
+        }
+
+        public void setMaxCollectionElements(int maxCollectionElements) {
+            this.maxCollectionElements = maxCollectionElements;
+            modified();
+        }
+
+        public int getMaxDepth() {
+            return maxDepth;
+        }
+
+        public void setMaxDepth(int maxDepth) {
+            this.maxDepth = maxDepth;
+            modified();
+        }
+
+        public boolean isSummarizeBinary() {
+            return summarizeBinary;
+        }
+
+        public void setSummarizeBinary(boolean summarizeBinary) {
+            this.summarizeBinary = summarizeBinary;
+            modified();
+        }
+
+        ValueRendering copy() {
+            ValueRendering result = new ValueRendering();
+            result.enabled = enabled;
+            result.maxStringLength = maxStringLength;
+            result.maxCollectionElements = maxCollectionElements;
+            result.maxDepth = maxDepth;
+            result.summarizeBinary = summarizeBinary;
+            return result;
+        }
+    }
+
+    public static class WarmUp extends NestedProperties {
+        private boolean enabled = false;
+        private List<String> basePackages = new ArrayList<>();
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+            modified();
+        }
+
+        public List<String> getBasePackages() {
+            return basePackages;
+        }
+
+        public void setBasePackages(List<String> basePackages) {
+            this.basePackages = basePackages;
+            modified();
+        }
+
+        WarmUp copy() {
+            WarmUp result = new WarmUp();
+            result.enabled = enabled;
+            result.basePackages = new ArrayList<>(basePackages);
+            return result;
+        }
+    }
+
+    public static class Reactive extends NestedProperties {
+        private List<String> pathPatterns = new ArrayList<>();
+
+        public List<String> getPathPatterns() {
+            return pathPatterns;
+        }
+
+        public void setPathPatterns(List<String> pathPatterns) {
+            this.pathPatterns = pathPatterns;
+            modified();
+        }
+
+        Reactive copy() {
+            Reactive result = new Reactive();
+            result.pathPatterns = new ArrayList<>(pathPatterns);
+            return result;
+        }
+    }
+
+    public static class LogRateLimit extends NestedProperties {
+        private boolean enabled = false;
+        private int limit = 10;
+        private Duration interval = Duration.ofSeconds(10);
+        private LogRateLimitKey key = LogRateLimitKey.ERROR_CODE;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+            modified();
+        }
+
+        public int getLimit() {
+            return limit;
+        }
+
+        public void setLimit(int limit) {
+            this.limit = limit;
+            modified();
+        }
+
+        public Duration getInterval() {
+            return interval;
+        }
+
+        public void setInterval(Duration interval) {
+            this.interval = interval;
+            modified();
+        }
+
+        public LogRateLimitKey getKey() {
+            return key;
+        }
+
+        public void setKey(LogRateLimitKey key) {
+            this.key = key;
+            modified();
+        }
+
+        LogRateLimit copy() {
+            LogRateLimit result = new LogRateLimit();
+            result.enabled = enabled;
+            result.limit = limit;
+            result.interval = interval;
+            result.key = key;
+            return result;
+        }
+    }
+
+    public static class AsyncLogging extends NestedProperties {
+        private boolean enabled = false;
+        private int queueCapacity = 1024;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+            modified();
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+            modified();
+        }
+
+        AsyncLogging copy() {
+            AsyncLogging result = new AsyncLogging();
+            result.enabled = enabled;
+            result.queueCapacity = queueCapacity;
+            return result;
+        }
+    }
+
+    public static class Overload extends NestedProperties {
+        private boolean enabled = false;
+        private int threshold = 1000;
+        private Duration window = Duration.ofSeconds(10);
+        private int logSampleRate = 100;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+            modified();
+        }
+
+        public int getThreshold() {
+            return threshold;
+        }
+
+        public void setThreshold(int threshold) {
+            this.threshold = threshold;
+            modified();
+        }
+
+        public Duration getWindow() {
+            return window;
+        }
+
+        public void setWindow(Duration window) {
+            this.window = window;
+            modified();
+        }
+
+        public int getLogSampleRate() {
+            return logSampleRate;
+        }
+
+        public void setLogSampleRate(int logSampleRate) {
+            this.logSampleRate = logSampleRate;
+            modified();
+        }
+
+        Overload copy() {
+            Overload result = new Overload();
+            result.enabled = enabled;
+            result.threshold = threshold;
+            result.window = window;
+            result.logSampleRate = logSampleRate;
+            return result;
+        }
+    }
+
+    public static class TraceId extends NestedProperties {
+        private boolean enabled = false;
+        private List<String> mdcKeys = new ArrayList<>(Arrays.asList("traceId", "X-B3-TraceId"));
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+            modified();
+        }
+
+        public List<String> getMdcKeys() {
+            return mdcKeys;
+        }
+
+        public void setMdcKeys(List<String> mdcKeys) {
+            this.mdcKeys = mdcKeys;
+            modified();
+        }
+
+        TraceId copy() {
+            TraceId result = new TraceId();
+            result.enabled = enabled;
+            result.mdcKeys = new ArrayList<>(mdcKeys);
+            return result;
+        }
+    }
+
+    public static class Unwrap extends NestedProperties {
+        private boolean enabled = false;
+        private int maxDepth = 5;
+        private List<String> wrapperClasses = new ArrayList<>(Arrays.asList(
+                "java.lang.reflect.UndeclaredThrowableException",
+                "java.lang.reflect.InvocationTargetException",
+                "java.util.concurrent.CompletionException",
+                "java.util.concurrent.ExecutionException",
+                "org.springframework.web.util.NestedServletException",
+                "org.springframework.transaction.TransactionSystemException",
+                "javax.persistence.RollbackException"));
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+            modified();
+        }
+
+        public int getMaxDepth() {
+            return maxDepth;
+        }
+
+        public void setMaxDepth(int maxDepth) {
+            this.maxDepth = maxDepth;
+            modified();
+        }
+
+        public List<String> getWrapperClasses() {
+            return wrapperClasses;
+        }
+
+        public void setWrapperClasses(List<String> wrapperClasses) {
+            this.wrapperClasses = wrapperClasses;
+            modified();
+        }
+
+        Unwrap copy() {
+            Unwrap result = new Unwrap();
+            result.enabled = enabled;
+            result.maxDepth = maxDepth;
+            result.wrapperClasses = new ArrayList<>(wrapperClasses);
+            return result;
         }
     }
 }
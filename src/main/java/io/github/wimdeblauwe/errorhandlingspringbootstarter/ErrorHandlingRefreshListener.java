@@ -0,0 +1,91 @@
+package io.github.wimdeblauwe.errorhandlingspringbootstarter;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.event.SmartApplicationListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Applies a refresh of the configuration of the application at runtime to the error handling. Spring Cloud publishes
+ * an <code>EnvironmentChangeEvent</code> when the configuration is refreshed (e.g. after a call to the
+ * <code>/actuator/refresh</code> endpoint).
+ * <p>
+ * The <code>error.handling</code> properties are bound into a new {@link ErrorHandlingProperties} instance, which becomes
+ * the snapshot that all components read (See {@link ErrorHandlingProperties#snapshot()}). This happens on the thread
+ * that publishes the event, just like Spring Cloud binds its configuration properties again. After that, all
+ * {@link Refreshable} beans are refreshed one after the other on a single background thread.
+ * <p>
+ * Spring Cloud is not a dependency of this library, so the event is matched on its class name.
+ */
+class ErrorHandlingRefreshListener implements SmartApplicationListener, DisposableBean {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ErrorHandlingRefreshListener.class);
+    static final String ENVIRONMENT_CHANGE_EVENT = "org.springframework.cloud.context.environment.EnvironmentChangeEvent";
+
+    private final ErrorHandlingProperties properties;
+    private final Environment environment;
+    private final ObjectProvider<Refreshable> refreshables;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "error-handling-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    ErrorHandlingRefreshListener(ErrorHandlingProperties properties,
+                                 Environment environment,
+                                 ObjectProvider<Refreshable> refreshables) {
+        this.properties = properties;
+        this.environment = environment;
+        this.refreshables = refreshables;
+    }
+
+    @Override
+    public boolean supportsEventType(Class<? extends ApplicationEvent> eventType) {
+        return ENVIRONMENT_CHANGE_EVENT.equals(eventType.getName());
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationEvent event) {
+        rebind();
+        executor.execute(this::refresh);
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.LOWEST_PRECEDENCE;
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Binds the properties from scratch, so the entries that have been removed from the configuration are removed as well.
+     * If the new configuration can not be bound, the current configuration stays in effect.
+     */
+    void rebind() {
+        try {
+            properties.publish(Binder.get(environment).bindOrCreate("error.handling", ErrorHandlingProperties.class));
+        } catch (RuntimeException e) {
+            LOGGER.warn("Unable to bind the changed error handling properties, the current properties are kept", e);
+        }
+    }
+
+    void refresh() {
+        refreshables.orderedStream().forEach(refreshable -> {
+            try {
+                refreshable.refresh();
+            } catch (RuntimeException e) {
+                LOGGER.warn("Unable to refresh {}", refreshable, e);
+            }
+        });
+    }
+}
@@ -0,0 +1,137 @@
+package io.github.wimdeblauwe.errorhandlingspringbootstarter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.core.type.filter.AssignableTypeFilter;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.ClassUtils;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Fills the caches of all {@link ExceptionClassWarmUp} beans when the application is ready, so the first
+ * occurrence of each exception class after a deploy does not pay for the class introspection.
+ * <p>
+ * The exception classes are found by scanning the configured base packages for {@link Throwable} subclasses
+ * that use the {@link ResponseStatus}, {@link ResponseErrorCode} or {@link ResponseErrorProperty} annotation.
+ * The exception classes are warmed up in parallel, while the Jackson serializers for {@link ApiErrorResponse}
+ * are created by serializing a synthetic response.
+ */
+class ErrorHandlingWarmUpListener implements ApplicationListener<ApplicationReadyEvent> {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ErrorHandlingWarmUpListener.class);
+
+    private final List<String> basePackages;
+    private final ObjectProvider<ExceptionClassWarmUp> warmUps;
+    private final ObjectProvider<ObjectMapper> objectMapper;
+
+    ErrorHandlingWarmUpListener(List<String> basePackages,
+                                ObjectProvider<ExceptionClassWarmUp> warmUps,
+                                ObjectProvider<ObjectMapper> objectMapper) {
+        this.basePackages = basePackages;
+        this.warmUps = warmUps;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        warmUp();
+    }
+
+    /**
+     * @return the exception classes that were warmed up
+     */
+    Set<Class<? extends Throwable>> warmUp() {
+        long startTime = System.nanoTime();
+        CompletableFuture<Void> serializers = CompletableFuture.runAsync(this::warmUpSerializers);
+
+        Set<Class<? extends Throwable>> exceptionClasses = findExceptionClasses();
+        List<ExceptionClassWarmUp> targets = warmUps.orderedStream().collect(Collectors.toList());
+        exceptionClasses.parallelStream().forEach(exceptionClass -> {
+            for (ExceptionClassWarmUp target : targets) {
+                try {
+                    target.warmUp(exceptionClass);
+                } catch (RuntimeException | LinkageError e) {
+                    LOGGER.warn("Unable to warm up {} for {}", target, exceptionClass.getName(), e);
+                }
+            }
+        });
+        serializers.join();
+
+        LOGGER.info("Warmed up error handling for {} exception classes in {} ms",
+                    exceptionClasses.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+        return exceptionClasses;
+    }
+
+    private Set<Class<? extends Throwable>> findExceptionClasses() {
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+        scanner.addIncludeFilter(new AssignableTypeFilter(Throwable.class));
+        ClassLoader classLoader = ClassUtils.getDefaultClassLoader();
+
+        Set<Class<? extends Throwable>> result = new LinkedHashSet<>();
+        for (String basePackage : basePackages) {
+            for (BeanDefinition candidate : scanner.findCandidateComponents(basePackage)) {
+                try {
+                    Class<?> candidateClass = ClassUtils.forName(candidate.getBeanClassName(), classLoader);
+                    if (isAnnotated(candidateClass)) {
+                        result.add(candidateClass.asSubclass(Throwable.class));
+                    }
+                } catch (ClassNotFoundException | LinkageError e) {
+                    LOGGER.debug("Unable to load {}: {}", candidate.getBeanClassName(), e.toString());
+                }
+            }
+        }
+        return result;
+    }
+
+    private static boolean isAnnotated(Class<?> exceptionClass) {
+        if (AnnotationUtils.getAnnotation(exceptionClass, ResponseStatus.class) != null
+                || AnnotationUtils.getAnnotation(exceptionClass, ResponseErrorCode.class) != null) {
+            return true;
+        }
+        for (Method method : exceptionClass.getMethods()) {
+            if (AnnotationUtils.getAnnotation(method, ResponseErrorProperty.class) != null) {
+                return true;
+            }
+        }
+        for (Class<?> type = exceptionClass; type != null && type != Object.class; type = type.getSuperclass()) {
+            for (Field field : type.getDeclaredFields()) {
+                if (AnnotationUtils.getAnnotation(field, ResponseErrorProperty.class) != null) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private void warmUpSerializers() {
+        ObjectMapper mapper = objectMapper.getIfAvailable();
+        if (mapper == null) {
+            return;
+        }
+        ApiErrorResponse response = new ApiErrorResponse(HttpStatus.BAD_REQUEST, "WARM_UP", "Warm-up");
+        response.addErrorProperty("property", "value");
+        response.addFieldError(new ApiFieldError("WARM_UP", "property", "Warm-up", "value"));
+        response.addGlobalError(new ApiGlobalError("WARM_UP", "Warm-up"));
+        try {
+            mapper.writeValueAsBytes(response);
+        } catch (JsonProcessingException | RuntimeException e) {
+            LOGGER.warn("Unable to warm up the serialization of {}", ApiErrorResponse.class.getName(), e);
+        }
+    }
+}
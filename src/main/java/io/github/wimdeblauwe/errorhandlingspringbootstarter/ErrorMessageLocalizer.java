@@ -0,0 +1,187 @@
+package io.github.wimdeblauwe.errorhandlingspringbootstarter;
+
+import org.springframework.context.MessageSource;
+
+import java.text.MessageFormat;
+import java.time.temporal.TemporalAccessor;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Replaces the messages in an {@link ApiErrorResponse} with the messages that are defined in the {@link MessageSource}
+ * for the locale of the request. The message for an error code is looked up with the key
+ * <code>error.handling.messages.&lt;code&gt;</code>. The message can use these arguments:
+ * <ul>
+ *     <li>For the response itself and the global errors: <code>{0}</code> is the original message.</li>
+ *     <li>For field errors: <code>{0}</code> is the property, <code>{1}</code> the rejected value and
+ *     <code>{2}</code> the original message.</li>
+ * </ul>
+ * The rejected value is only passed for simple values, and strings are truncated (See {@link #MAX_REJECTED_VALUE_LENGTH}).
+ * Other objects are passed as an empty string, so formatting a message never calls <code>toString()</code> on an
+ * entity or a large object.
+ * <p>
+ * The message pattern for each code and locale is parsed once and cached, as validation responses can contain
+ * hundreds of messages. The cache is cleared when this localizer is refreshed.
+ */
+public class ErrorMessageLocalizer implements Refreshable {
+    static final String MESSAGE_CODE_PREFIX = "error.handling.messages.";
+    static final int MAX_REJECTED_VALUE_LENGTH = 100;
+    /**
+     * Default message that is passed to the {@link MessageSource}, to detect that there is no message for a code.
+     * Without it, a message source that uses the code as default message would return the code.
+     */
+    private static final String NO_MESSAGE = "\u0000";
+    /**
+     * The locale comes from the request, so the number of cached locales is limited.
+     */
+    private static final int MAX_CACHED_LOCALES = 100;
+
+    private final MessageSource messageSource;
+    private final ConcurrentMap<Locale, ConcurrentMap<String, MessageTemplate>> templates = new ConcurrentHashMap<>();
+
+    public ErrorMessageLocalizer(MessageSource messageSource) {
+        this.messageSource = messageSource;
+    }
+
+    @Override
+    public void refresh() {
+        templates.clear();
+    }
+
+    /**
+     * Returns a copy of the response with the localized messages. Field and global errors are
+     * localized while they are iterated, so lazily added errors stay lazy.
+     *
+     * @param response the response with the messages of the handler
+     * @param locale   the locale of the request, or <code>null</code> to use the default locale
+     * @return the response with the localized messages
+     */
+    ApiErrorResponse localize(ApiErrorResponse response,
+                              Locale locale) {
+        Locale messageLocale = locale != null ? locale : Locale.getDefault();
+        String message = format(response.getCode(), messageLocale, response.getMessage(), response.getMessage());
+        ApiErrorResponse result = new ApiErrorResponse(response.getHttpStatus(), response.getCode(), message);
+        for (Map.Entry<String, Object> property : response.getProperties().entrySet()) {
+            result.addErrorProperty(property.getKey(), property.getValue());
+        }
+        result.setTraceId(response.getTraceId());
+        result.addFieldErrors(() -> new LocalizingIterator<ApiFieldError>(response.fieldErrorIterator()) {
+            @Override
+            ApiFieldError localizeError(ApiFieldError fieldError) {
+                return new ApiFieldError(fieldError.getCode(),
+                                         fieldError.getProperty(),
+                                         format(fieldError.getCode(), messageLocale, fieldError.getMessage(),
+                                                fieldError.getProperty(), toArgument(fieldError.getRejectedValue()), fieldError.getMessage()),
+                                         fieldError.getRejectedValue());
+            }
+        });
+        result.addGlobalErrors(() -> new LocalizingIterator<ApiGlobalError>(response.globalErrorIterator()) {
+            @Override
+            ApiGlobalError localizeError(ApiGlobalError globalError) {
+                return new ApiGlobalError(globalError.getCode(),
+                                          format(globalError.getCode(), messageLocale, globalError.getMessage(), globalError.getMessage()));
+            }
+        });
+        return result;
+    }
+
+    private String format(String code,
+                          Locale locale,
+                          String defaultMessage,
+                          Object... args) {
+        if (code == null) {
+            return defaultMessage;
+        }
+        MessageTemplate template = getTemplates(locale).computeIfAbsent(code, c -> createTemplate(c, locale));
+        return template != MessageTemplate.NONE ? template.format(args) : defaultMessage;
+    }
+
+    private static Object toArgument(Object rejectedValue) {
+        if (rejectedValue instanceof CharSequence) {
+            String value = rejectedValue.toString();
+            return value.length() <= MAX_REJECTED_VALUE_LENGTH
+                    ? value
+                    : value.substring(0, MAX_REJECTED_VALUE_LENGTH) + BoundedValueWriter.TRUNCATED;
+        }
+        if (rejectedValue == null || rejectedValue instanceof Number || rejectedValue instanceof Boolean
+                || rejectedValue instanceof Character || rejectedValue instanceof Enum
+                || rejectedValue instanceof Date || rejectedValue instanceof TemporalAccessor || rejectedValue instanceof UUID) {
+            return rejectedValue;
+        }
+        return "";
+    }
+
+    private ConcurrentMap<String, MessageTemplate> getTemplates(Locale locale) {
+        ConcurrentMap<String, MessageTemplate> result = templates.get(locale);
+        if (result == null) {
+            if (templates.size() >= MAX_CACHED_LOCALES) {
+                templates.clear();
+            }
+            result = templates.computeIfAbsent(locale, l -> new ConcurrentHashMap<>());
+        }
+        return result;
+    }
+
+    /**
+     * Without arguments, the {@link MessageSource} returns the message pattern as is, so it can be parsed here once.
+     */
+    private MessageTemplate createTemplate(String code,
+                                           Locale locale) {
+        String pattern = messageSource.getMessage(MESSAGE_CODE_PREFIX + code, null, NO_MESSAGE, locale);
+        if (pattern == null || NO_MESSAGE.equals(pattern)) {
+            return MessageTemplate.NONE;
+        }
+        if (pattern.indexOf('{') < 0 && pattern.indexOf('\'') < 0) {
+            return new MessageTemplate(pattern, null);
+        }
+        return new MessageTemplate(pattern, new MessageFormat(pattern, locale));
+    }
+
+    private static final class MessageTemplate {
+        private static final MessageTemplate NONE = new MessageTemplate(null, null);
+
+        private final String pattern;
+        private final MessageFormat messageFormat;
+
+        private MessageTemplate(String pattern,
+                                MessageFormat messageFormat) {
+            this.pattern = pattern;
+            this.messageFormat = messageFormat;
+        }
+
+        private String format(Object[] args) {
+            if (messageFormat == null) {
+                return pattern;
+            }
+            // MessageFormat is not thread-safe
+            synchronized (messageFormat) {
+                return messageFormat.format(args);
+            }
+        }
+    }
+
+    private abstract static class LocalizingIterator<T> implements Iterator<T> {
+        private final Iterator<T> delegate;
+
+        private LocalizingIterator(Iterator<T> delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return delegate.hasNext();
+        }
+
+        @Override
+        public T next() {
+            return localizeError(delegate.next());
+        }
+
+        abstract T localizeError(T error);
+    }
+}
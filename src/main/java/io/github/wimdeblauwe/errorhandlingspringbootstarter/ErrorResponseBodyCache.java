@@ -0,0 +1,202 @@
+package io.github.wimdeblauwe.errorhandlingspringbootstarter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Cache of the serialized JSON response body for exception classes where the response only depends
+ * on the exception class and the exception message (See {@link FallbackApiExceptionHandler#hasCacheableResponse(Class)}).
+ * Repeated identical exceptions are answered by writing the cached bytes.
+ * <p>
+ * The body is only cached for exception classes with a constant message. When an exception class is seen with
+ * a second message, its responses are no longer cached, so exceptions with a message per instance (e.g. with an id
+ * in it) do not replace the cached body on every request.
+ * <p>
+ * In overload mode (See {@link OverloadProtection}), the minimal responses are cached per HTTP status and error code.
+ * <p>
+ * The trace id differs for each request, so it is not part of the cached body but added to a copy of it
+ * (See {@link CachedBody#toResponseEntity(String)}).
+ */
+class ErrorResponseBodyCache {
+    private final ErrorHandlingProperties properties;
+    private final ObjectMapper objectMapper;
+    private final ClassValue<CachedBodyHolder> cache = new ClassValue<CachedBodyHolder>() {
+        @Override
+        protected CachedBodyHolder computeValue(Class<?> exceptionClass) {
+            return new CachedBodyHolder();
+        }
+    };
+    private volatile MinimalBodies minimalBodies = new MinimalBodies(-1);
+
+    ErrorResponseBodyCache(ErrorHandlingProperties properties,
+                           ObjectMapper objectMapper) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Returns the response for the given exception, using the cached body if available.
+     *
+     * @param exception       the Throwable that needs to be handled
+     * @param fallbackHandler the handler to create the response with if there is nothing cached yet
+     * @return the cached response, or <code>null</code> if the message of the exception class is not constant or
+     * the response could not be serialized
+     */
+    CachedBody getResponse(Throwable exception,
+                           FallbackApiExceptionHandler fallbackHandler) {
+        CachedBodyHolder holder = cache.get(exception.getClass());
+        if (holder.variableMessage) {
+            return null;
+        }
+        ErrorHandlingProperties properties = this.properties.snapshot();
+        long revision = properties.getRevision();
+        String message = ExceptionMessages.getMessage(exception);
+        CachedBody cachedBody = holder.cachedBody;
+        if (cachedBody == null || !cachedBody.isFor(revision, message)) {
+            if (cachedBody != null && cachedBody.revision == revision) {
+                holder.variableMessage = true;
+                holder.cachedBody = null;
+                return null;
+            }
+            ApiErrorResponse errorResponse = ExceptionMessages.applyMessageBudget(fallbackHandler.handle(exception), properties);
+            try {
+                cachedBody = new CachedBody(revision, message, errorResponse.getHttpStatus(), errorResponse.getCode(),
+                                            properties.getJsonFieldNames().getTraceId(), objectMapper.writeValueAsBytes(errorResponse));
+            } catch (JsonProcessingException e) {
+                return null;
+            }
+            holder.cachedBody = cachedBody;
+        }
+
+        return cachedBody;
+    }
+
+    /**
+     * Returns the serialized form of the given minimal response (See {@link FallbackApiExceptionHandler#handleMinimal(Throwable)}).
+     * Its body only depends on the HTTP status and the error code, so it is serialized once for each combination.
+     *
+     * @param errorResponse the minimal response
+     * @return the cached response, or <code>null</code> if the response could not be serialized
+     */
+    CachedBody getMinimalResponse(ApiErrorResponse errorResponse) {
+        MinimalBodies bodies = minimalBodies;
+        ErrorHandlingProperties properties = this.properties.snapshot();
+        long revision = properties.getRevision();
+        if (bodies.revision != revision) {
+            bodies = new MinimalBodies(revision);
+            minimalBodies = bodies;
+        }
+
+        ConcurrentMap<String, CachedBody> bodiesForStatus = bodies.bodies.computeIfAbsent(errorResponse.getHttpStatus(), s -> new ConcurrentHashMap<>());
+        CachedBody cachedBody = bodiesForStatus.get(errorResponse.getCode());
+        if (cachedBody == null) {
+            try {
+                cachedBody = new CachedBody(revision, errorResponse.getMessage(), errorResponse.getHttpStatus(), errorResponse.getCode(),
+                                            properties.getJsonFieldNames().getTraceId(), objectMapper.writeValueAsBytes(errorResponse));
+            } catch (JsonProcessingException e) {
+                return null;
+            }
+            bodiesForStatus.putIfAbsent(errorResponse.getCode(), cachedBody);
+        }
+        return cachedBody;
+    }
+
+    private static final class MinimalBodies {
+        private final long revision;
+        private final ConcurrentMap<HttpStatus, ConcurrentMap<String, CachedBody>> bodies = new ConcurrentHashMap<>();
+
+        private MinimalBodies(long revision) {
+            this.revision = revision;
+        }
+    }
+
+    private static final class CachedBodyHolder {
+        private volatile CachedBody cachedBody;
+        private volatile boolean variableMessage;
+    }
+
+    static final class CachedBody {
+        private final long revision;
+        private final String message;
+        private final HttpStatus httpStatus;
+        private final String code;
+        private final String traceIdFieldName;
+        private final byte[] body;
+
+        private CachedBody(long revision,
+                           String message,
+                           HttpStatus httpStatus,
+                           String code,
+                           String traceIdFieldName,
+                           byte[] body) {
+            this.revision = revision;
+            this.message = message;
+            this.httpStatus = httpStatus;
+            this.code = code;
+            this.traceIdFieldName = traceIdFieldName;
+            this.body = body;
+        }
+
+        HttpStatus getHttpStatus() {
+            return httpStatus;
+        }
+
+        String getCode() {
+            return code;
+        }
+
+        /**
+         * @param traceId the trace id of the request, or <code>null</code> to use the cached body as is
+         */
+        ResponseEntity<byte[]> toResponseEntity(String traceId) {
+            return ResponseEntity.status(httpStatus)
+                                 .contentType(MediaType.APPLICATION_JSON)
+                                 .body(traceId != null ? withTraceId(traceId) : body);
+        }
+
+        /**
+         * Copy the body up to the closing brace of the JSON object and append the trace id field.
+         */
+        private byte[] withTraceId(String traceId) {
+            int end = body.length - 1;
+            while (end > 0 && body[end] != '}') {
+                end--;
+            }
+            int last = end - 1;
+            while (last > 0 && Character.isWhitespace(body[last])) {
+                last--;
+            }
+            JsonStringEncoder encoder = JsonStringEncoder.getInstance();
+            byte[] fieldName = encoder.quoteAsUTF8(traceIdFieldName);
+            byte[] value = encoder.quoteAsUTF8(traceId);
+            ByteArrayOutputStream result = new ByteArrayOutputStream(body.length + fieldName.length + value.length + 8);
+            result.write(body, 0, end);
+            if (body[last] != '{') {
+                result.write(',');
+            }
+            result.write('"');
+            result.write(fieldName, 0, fieldName.length);
+            result.write('"');
+            result.write(':');
+            result.write('"');
+            result.write(value, 0, value.length);
+            result.write('"');
+            result.write(body, end, body.length - end);
+            return result.toByteArray();
+        }
+
+        private boolean isFor(long revision,
+                              String message) {
+            return this.revision == revision && Objects.equals(this.message, message);
+        }
+    }
+}
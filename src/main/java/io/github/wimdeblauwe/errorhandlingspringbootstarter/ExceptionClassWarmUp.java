@@ -0,0 +1,18 @@
+package io.github.wimdeblauwe.errorhandlingspringbootstarter;
+
+/**
+ * Implemented by components that cache information per exception class. The information is created when
+ * an exception class is handled for the first time. Calling {@link #warmUp(Class)} does this in advance,
+ * so the first occurrence of an exception after startup does not have to.
+ *
+ * @see ErrorHandlingWarmUpListener
+ */
+public interface ExceptionClassWarmUp {
+    /**
+     * Create the cached information for the given exception class.
+     * This method can be called concurrently for different exception classes and with the handling of exceptions.
+     *
+     * @param exceptionClass the class of the Throwable that can be handled
+     */
+    void warmUp(Class<? extends Throwable> exceptionClass);
+}
@@ -0,0 +1,117 @@
+package io.github.wimdeblauwe.errorhandlingspringbootstarter;
+
+import org.springframework.http.HttpStatus;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Resolves the {@link ErrorHandlingProperties#getHttpStatuses()}, {@link ErrorHandlingProperties#getCodes()} and
+ * {@link ErrorHandlingProperties#getFullStacktraceClasses()} that apply to an exception class. If the exception class
+ * itself is not configured, the configuration of the nearest superclass is used.
+ * <p>
+ * The class hierarchy is walked once per exception class, the result is cached per class. The configuration is
+ * matched on the class names, so exception classes that are loaded again by another class loader (e.g. after a restart
+ * of Spring Boot DevTools) are resolved the same way. The cache does not keep a reference to the classes, so it does not
+ * prevent a class loader from being garbage collected.
+ * <p>
+ * A single instance is shared by all components that use the same {@link ErrorHandlingProperties}, see {@link #of(ErrorHandlingProperties)}.
+ */
+public final class ExceptionHierarchyMapping {
+    private final long revision;
+    private final Map<String, HttpStatus> httpStatuses;
+    private final Map<String, String> codes;
+    private final Set<String> fullStacktraceClassNames;
+    private final ClassValue<Resolution> resolutions = new ClassValue<Resolution>() {
+        @Override
+        protected Resolution computeValue(Class<?> exceptionClass) {
+            return resolve(exceptionClass);
+        }
+    };
+
+    private ExceptionHierarchyMapping(ErrorHandlingProperties properties,
+                                      long revision) {
+        this.revision = revision;
+        this.httpStatuses = new HashMap<>(properties.getHttpStatuses());
+        this.codes = new HashMap<>(properties.getCodes());
+        this.fullStacktraceClassNames = new HashSet<>();
+        for (Class<? extends Throwable> fullStacktraceClass : properties.getFullStacktraceClasses()) {
+            fullStacktraceClassNames.add(fullStacktraceClass.getName());
+        }
+    }
+
+    /**
+     * Returns the mapping for the current snapshot of the properties. The mapping is kept with the snapshot,
+     * so it is only created again if the properties have been changed.
+     */
+    public static ExceptionHierarchyMapping of(ErrorHandlingProperties properties) {
+        ErrorHandlingProperties snapshot = properties.snapshot();
+        ExceptionHierarchyMapping result = snapshot.getExceptionHierarchyMapping();
+        if (result == null) {
+            result = new ExceptionHierarchyMapping(snapshot, snapshot.getRevision());
+            snapshot.setExceptionHierarchyMapping(result);
+        }
+        return result;
+    }
+
+    /**
+     * @return the revision of the snapshot of the {@link ErrorHandlingProperties} this mapping was created for
+     */
+    public long getRevision() {
+        return revision;
+    }
+
+    /**
+     * @return the configured HTTP status of the exception class or its nearest superclass, or <code>null</code> if there is none
+     */
+    public HttpStatus getHttpStatus(Class<?> exceptionClass) {
+        return resolutions.get(exceptionClass).httpStatus;
+    }
+
+    /**
+     * @return the configured code of the exception class or its nearest superclass, or <code>null</code> if there is none
+     */
+    public String getCode(Class<?> exceptionClass) {
+        return resolutions.get(exceptionClass).code;
+    }
+
+    /**
+     * @return <code>true</code> if the exception class or one of its superclasses is configured as full stacktrace class
+     */
+    public boolean isFullStacktrace(Class<?> exceptionClass) {
+        return resolutions.get(exceptionClass).fullStacktrace;
+    }
+
+    private Resolution resolve(Class<?> exceptionClass) {
+        HttpStatus httpStatus = null;
+        String code = null;
+        boolean fullStacktrace = false;
+        for (Class<?> type = exceptionClass; type != null && type != Object.class; type = type.getSuperclass()) {
+            String name = type.getName();
+            if (httpStatus == null) {
+                httpStatus = httpStatuses.get(name);
+            }
+            if (code == null) {
+                code = codes.get(name);
+            }
+            fullStacktrace |= fullStacktraceClassNames.contains(name);
+        }
+        return new Resolution(httpStatus, code, fullStacktrace);
+    }
+
+    private static final class Resolution {
+        private final HttpStatus httpStatus;
+        private final String code;
+        private final boolean fullStacktrace;
+
+        private Resolution(HttpStatus httpStatus,
+                           String code,
+                           boolean fullStacktrace) {
+            this.httpStatus = httpStatus;
+            this.code = code;
+            this.fullStacktrace = fullStacktrace;
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package io.github.wimdeblauwe.errorhandlingspringbootstarter;
+
+import org.slf4j.Logger;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Limits how many exceptions are logged per error code or per exception class in a given interval
+ * (See {@link ErrorHandlingProperties.LogRateLimit}).
+ * <p>
+ * Exceptions above the limit are counted. A background thread logs a summary line for each key with suppressed
+ * exceptions once per interval, so the summary does not depend on the arrival of another exception.
+ * The same thread removes the keys that have not been used for a whole interval, and at most {@link #MAX_KEYS} keys
+ * are tracked at the same time. The exceptions for other keys are counted together.
+ * <p>
+ * Each key has its own window with lock-free counters, so concurrent requests for different keys do not contend.
+ * A new interval starts by replacing the window of a key with a single compare-and-set.
+ */
+class ExceptionLogRateLimiter implements AutoCloseable {
+    static final int MAX_KEYS = 1000;
+    static final String OTHER_KEY = "other";
+
+    private final ErrorHandlingProperties properties;
+    private final LongSupplier nanoClock;
+    private final Logger logger;
+    private final boolean scheduleFlush;
+    private final ConcurrentMap<Object, KeyState> keyStates = new ConcurrentHashMap<>();
+    private ScheduledExecutorService flushExecutor;
+    private volatile boolean flushScheduled;
+
+    ExceptionLogRateLimiter(ErrorHandlingProperties properties,
+                            Logger logger) {
+        this(properties, System::nanoTime, logger, true);
+    }
+
+    /**
+     * @param scheduleFlush if a background thread should call {@link #flush()}, tests call it themselves
+     */
+    ExceptionLogRateLimiter(ErrorHandlingProperties properties,
+                            LongSupplier nanoClock,
+                            Logger logger,
+                            boolean scheduleFlush) {
+        this.properties = properties;
+        this.nanoClock = nanoClock;
+        this.logger = logger;
+        this.scheduleFlush = scheduleFlush;
+    }
+
+    /**
+     * Determine if the given exception should be logged.
+     *
+     * @param exception the exception that is handled
+     * @param code      the error code of the response for the exception
+     * @return <code>true</code> if the exception should be logged, <code>false</code> if the limit for the current interval is reached
+     */
+    boolean tryAcquire(Throwable exception,
+                       String code) {
+        ErrorHandlingProperties.LogRateLimit rateLimit = properties.snapshot().getLogRateLimit();
+        if (!rateLimit.isEnabled()) {
+            return true;
+        }
+        if (scheduleFlush && !flushScheduled) {
+            startFlushing();
+        }
+
+        Object key = rateLimit.getKey() == ErrorHandlingProperties.LogRateLimitKey.EXCEPTION_CLASS || code == null
+                ? exception.getClass()
+                : code;
+        return getKeyState(key).tryAcquire(rateLimit.getLimit(), rateLimit.getInterval().toNanos());
+    }
+
+    /**
+     * Log a summary for each key with exceptions that were not logged since the previous summary,
+     * and remove the keys that were not used since their last window ended.
+     */
+    synchronized void flush() {
+        long now = nanoClock.getAsLong();
+        long intervalNanos = properties.snapshot().getLogRateLimit().getInterval().toNanos();
+        Iterator<Map.Entry<Object, KeyState>> iterator = keyStates.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Object, KeyState> entry = iterator.next();
+            KeyState keyState = entry.getValue();
+            if (!keyState.logSummary(entry.getKey(), now) && now - keyState.window.get().start >= intervalNanos) {
+                iterator.remove();
+                // Exceptions that were counted while the key was removed
+                keyState.logSummary(entry.getKey(), now);
+            }
+        }
+    }
+
+    /**
+     * Stop the background thread and log the summaries that are still pending.
+     */
+    @Override
+    public synchronized void close() {
+        if (flushExecutor != null) {
+            flushExecutor.shutdownNow();
+        }
+        flushScheduled = true;
+        flush();
+    }
+
+    private KeyState getKeyState(Object key) {
+        KeyState keyState = keyStates.get(key);
+        if (keyState == null) {
+            Object trackedKey = keyStates.size() < MAX_KEYS ? key : OTHER_KEY;
+            keyState = keyStates.computeIfAbsent(trackedKey, k -> new KeyState(nanoClock.getAsLong()));
+        }
+        return keyState;
+    }
+
+    private synchronized void startFlushing() {
+        if (flushScheduled) {
+            return;
+        }
+        flushExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "error-handling-log-rate-limit");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduleNextFlush();
+        flushScheduled = true;
+    }
+
+    /**
+     * The interval is read each time, so a change of the configuration is picked up.
+     */
+    private void scheduleNextFlush() {
+        long intervalNanos = properties.snapshot().getLogRateLimit().getInterval().toNanos();
+        flushExecutor.schedule(() -> {
+            try {
+                flush();
+            } finally {
+                if (!flushExecutor.isShutdown()) {
+                    scheduleNextFlush();
+                }
+            }
+        }, Math.max(1, intervalNanos), TimeUnit.NANOSECONDS);
+    }
+
+    static String formatDuration(Duration duration) {
+        long seconds = duration.getSeconds();
+        return seconds > 0 ? seconds + "s" : duration.toMillis() + "ms";
+    }
+
+    /**
+     * Each interval gets a new window, so a request that still uses the previous window
+     * only counts against the interval in which it started.
+     */
+    private static final class Window {
+        private final long start;
+        private final AtomicInteger count = new AtomicInteger();
+
+        private Window(long start) {
+            this.start = start;
+        }
+    }
+
+    private final class KeyState {
+        private final AtomicReference<Window> window;
+        /**
+         * Never reset, so no increment can be lost. The summary reports the difference with the previous summary.
+         */
+        private final LongAdder suppressed = new LongAdder();
+        // Only used while holding the lock of flush()
+        private long reportedSuppressed;
+        private long reportedAt;
+
+        private KeyState(long now) {
+            this.window = new AtomicReference<>(new Window(now));
+            this.reportedAt = now;
+        }
+
+        private boolean tryAcquire(int limit,
+                                   long intervalNanos) {
+            Window current = window.get();
+            long now = nanoClock.getAsLong();
+            if (now - current.start >= intervalNanos) {
+                Window next = new Window(now);
+                current = window.compareAndSet(current, next) ? next : window.get();
+            }
+
+            if (current.count.get() < limit && current.count.incrementAndGet() <= limit) {
+                return true;
+            }
+            suppressed.increment();
+            return false;
+        }
+
+        /**
+         * @return <code>true</code> if a summary was logged
+         */
+        private boolean logSummary(Object key,
+                                   long now) {
+            long total = suppressed.sum();
+            long count = total - reportedSuppressed;
+            if (count <= 0) {
+                return false;
+            }
+            logger.warn(String.format(Locale.ROOT,
+                                      "Suppressed logging of %,d %s exceptions in the last %s",
+                                      count,
+                                      key instanceof Class ? ((Class<?>) key).getName() : key,
+                                      formatDuration(Duration.ofNanos(now - reportedAt))));
+            reportedSuppressed = total;
+            reportedAt = now;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package io.github.wimdeblauwe.errorhandlingspringbootstarter;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Access to the messages of the exceptions that are handled.
+ * <p>
+ * The message of some exceptions is built on each call of {@link Throwable#getMessage()} (e.g. the Spring exceptions
+ * that include the message of the nested cause). While the {@link ApiExceptionHandlerChain} handles an exception,
+ * the message of each exception is only computed once and shared between the handler and the logging.
+ * <p>
+ * The message in the response is limited by the <code>error.handling.max-message-length</code> and
+ * <code>error.handling.include-nested-cause-message</code> properties, see {@link #applyMessageBudget(ApiErrorResponse, ErrorHandlingProperties)}.
+ */
+public final class ExceptionMessages {
+    static final String TRUNCATED = "...";
+    /**
+     * The separator that Spring uses to append the message of the cause to the message of a
+     * <code>NestedRuntimeException</code> or <code>NestedCheckedException</code>.
+     */
+    private static final String NESTED_EXCEPTION_SEPARATOR = "; nested exception is ";
+
+    private static final ThreadLocal<Map<Throwable, String>> CACHED_MESSAGES = new ThreadLocal<>();
+
+    private ExceptionMessages() {
+    }
+
+    /**
+     * Returns the message of the exception. If the exception is handled by the {@link ApiExceptionHandlerChain}
+     * on the current thread, the message is computed once and cached until the handling is done.
+     *
+     * @param exception the exception
+     * @return the message of the exception
+     */
+    public static String getMessage(Throwable exception) {
+        Map<Throwable, String> cachedMessages = CACHED_MESSAGES.get();
+        if (cachedMessages == null) {
+            return exception.getMessage();
+        }
+        String message = cachedMessages.get(exception);
+        if (message == null && !cachedMessages.containsKey(exception)) {
+            message = exception.getMessage();
+            cachedMessages.put(exception, message);
+        }
+        return message;
+    }
+
+    /**
+     * Start caching the messages on the current thread.
+     *
+     * @return the cache that was active before, to be passed to {@link #stopCaching(Map)}
+     */
+    static Map<Throwable, String> startCaching() {
+        Map<Throwable, String> previous = CACHED_MESSAGES.get();
+        CACHED_MESSAGES.set(new IdentityHashMap<>(4));
+        return previous;
+    }
+
+    /**
+     * Stop caching the messages on the current thread, so the exceptions are not kept in memory.
+     *
+     * @param previous the cache that was returned by {@link #startCaching()}
+     */
+    static void stopCaching(Map<Throwable, String> previous) {
+        if (previous != null) {
+            CACHED_MESSAGES.set(previous);
+        } else {
+            CACHED_MESSAGES.remove();
+        }
+    }
+
+    /**
+     * Limits the message of the response according to the properties. The message of the cause is removed if
+     * <code>error.handling.include-nested-cause-message</code> is <code>false</code>, and a message that is longer than
+     * <code>error.handling.max-message-length</code> is truncated.
+     *
+     * @return the response itself if the message is within the limits, otherwise a copy with the limited message
+     */
+    static ApiErrorResponse applyMessageBudget(ApiErrorResponse response,
+                                               ErrorHandlingProperties properties) {
+        String message = response.getMessage();
+        if (message == null) {
+            return response;
+        }
+        String limitedMessage = message;
+        if (!properties.isIncludeNestedCauseMessage()) {
+            int separatorIndex = limitedMessage.indexOf(NESTED_EXCEPTION_SEPARATOR);
+            if (separatorIndex >= 0) {
+                limitedMessage = limitedMessage.substring(0, separatorIndex);
+            }
+        }
+        int maxMessageLength = properties.getMaxMessageLength();
+        if (maxMessageLength >= 0 && limitedMessage.length() > maxMessageLength) {
+            limitedMessage = limitedMessage.substring(0, maxMessageLength) + TRUNCATED;
+        }
+        return limitedMessage != message ? response.withMessage(limitedMessage) : response;
+    }
+}
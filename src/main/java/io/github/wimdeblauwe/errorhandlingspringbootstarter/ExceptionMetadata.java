@@ -0,0 +1,48 @@
+package io.github.wimdeblauwe.errorhandlingspringbootstarter;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * The {@link org.springframework.web.bind.annotation.ResponseStatus}, {@link ResponseErrorCode} and
+ * {@link ResponseErrorProperty} annotations of an exception class, determined at compile time.
+ * <p>
+ * Implementations are generated by the
+ * {@link io.github.wimdeblauwe.errorhandlingspringbootstarter.processor.ExceptionMetadataProcessor} and registered in
+ * <code>META-INF/services</code>. The {@link DefaultFallbackApiExceptionHandler} uses them instead of reflection.
+ */
+public interface ExceptionMetadata {
+    /**
+     * @return the exception class this metadata is for. Subclasses have their own metadata.
+     */
+    Class<? extends Throwable> getExceptionClass();
+
+    /**
+     * @return the value of the <code>@ResponseStatus</code> annotation, or <code>null</code> if the class is not annotated
+     */
+    HttpStatus getResponseStatus();
+
+    /**
+     * @return the value of the <code>@ResponseErrorCode</code> annotation, or <code>null</code> if the class is not annotated
+     */
+    String getResponseErrorCode();
+
+    /**
+     * @return <code>false</code> if at least one <code>@ResponseErrorProperty</code> member can not be accessed
+     * without reflection (e.g. a private field). The properties are then not part of this metadata.
+     */
+    boolean isResponseErrorPropertiesAccessible();
+
+    /**
+     * @return <code>true</code> if the class has <code>@ResponseErrorProperty</code> members
+     */
+    boolean hasResponseErrorProperties();
+
+    /**
+     * Add the values of the <code>@ResponseErrorProperty</code> members to the response.
+     *
+     * @param exception the exception, an instance of {@link #getExceptionClass()}
+     * @param response  the response to add the properties to
+     */
+    void addResponseErrorProperties(Throwable exception,
+                                    ApiErrorResponse response);
+}
@@ -0,0 +1,83 @@
+package io.github.wimdeblauwe.errorhandlingspringbootstarter;
+
+import java.util.List;
+
+/**
+ * Walks the cause chain of exceptions that only wrap another exception, like
+ * {@link java.lang.reflect.UndeclaredThrowableException} or {@link java.util.concurrent.CompletionException}
+ * (See {@link ErrorHandlingProperties.Unwrap}).
+ * <p>
+ * Whether an exception class is a wrapper is determined once per class. The walk stops at the configured maximum
+ * depth and when a cause is found that was already seen in the chain.
+ */
+class ExceptionUnwrapper {
+    private final ErrorHandlingProperties properties;
+    private volatile WrapperTypes wrapperTypes;
+
+    ExceptionUnwrapper(ErrorHandlingProperties properties) {
+        this.properties = properties;
+        this.wrapperTypes = new WrapperTypes(properties.snapshot().getUnwrap().getWrapperClasses());
+    }
+
+    /**
+     * Returns the cause that needs to be considered next when walking the cause chain of the given exception.
+     *
+     * @param exception the exception that is handled
+     * @param current   the exception in the cause chain of <code>exception</code> that was considered last
+     * @return the cause of <code>current</code>, or <code>null</code> if the walk should stop
+     */
+    Throwable getCause(Throwable exception,
+                       Throwable current) {
+        ErrorHandlingProperties.Unwrap unwrap = properties.snapshot().getUnwrap();
+        if (!unwrap.isEnabled() || !getWrapperTypes(unwrap).get(current.getClass())) {
+            return null;
+        }
+
+        Throwable cause = current.getCause();
+        if (cause == null || cause == current) {
+            return null;
+        }
+
+        int maxDepth = unwrap.getMaxDepth();
+        int depth = 1;
+        for (Throwable seen = exception; seen != current; seen = seen.getCause()) {
+            if (seen == null || seen == cause || depth >= maxDepth) {
+                return null;
+            }
+            depth++;
+        }
+        return depth <= maxDepth ? cause : null;
+    }
+
+    private WrapperTypes getWrapperTypes(ErrorHandlingProperties.Unwrap unwrap) {
+        WrapperTypes result = wrapperTypes;
+        List<String> wrapperClasses = unwrap.getWrapperClasses();
+        if (result.wrapperClasses != wrapperClasses) {
+            result = new WrapperTypes(wrapperClasses);
+            wrapperTypes = result;
+        }
+        return result;
+    }
+
+    private static final class WrapperTypes extends ClassValue<Boolean> {
+        private final List<String> wrapperClasses;
+
+        private WrapperTypes(List<String> wrapperClasses) {
+            this.wrapperClasses = wrapperClasses;
+        }
+
+        /**
+         * Compare on the names of the class and its superclasses, so wrapper types that are not on the classpath
+         * do not need to be loaded.
+         */
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+                if (wrapperClasses.contains(current.getName())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -1,5 +1,33 @@
 package io.github.wimdeblauwe.errorhandlingspringbootstarter;
 
+import org.springframework.http.HttpStatus;
+
 public interface FallbackApiExceptionHandler {
     ApiErrorResponse handle(Throwable exception);
+
+    /**
+     * Indicates if the response for exceptions of the given class only depends on the exception class
+     * and the message of the exception. If so, the serialized response can be cached when
+     * the <code>error.handling.cache-constant-responses</code> property is enabled.
+     *
+     * @param exceptionClass the class of the Throwable that needs to be handled
+     * @return true if the response only depends on the exception class and message, false otherwise.
+     */
+    default boolean hasCacheableResponse(Class<? extends Throwable> exceptionClass) {
+        return false;
+    }
+
+    /**
+     * Create a response for the given exception that only has the HTTP status and the error code of the exception,
+     * with the reason phrase of the HTTP status as message. This is used in overload mode
+     * (See {@link OverloadProtection}), so implementations should avoid any work that is not needed for this.
+     *
+     * @param exception the Throwable that needs to be handled
+     * @return the response without message and error properties of the exception
+     */
+    default ApiErrorResponse handleMinimal(Throwable exception) {
+        ApiErrorResponse response = handle(exception);
+        HttpStatus httpStatus = response.getHttpStatus();
+        return new ApiErrorResponse(httpStatus, response.getCode(), httpStatus.getReasonPhrase());
+    }
 }
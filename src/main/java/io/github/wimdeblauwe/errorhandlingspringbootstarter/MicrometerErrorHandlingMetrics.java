@@ -0,0 +1,121 @@
+package io.github.wimdeblauwe.errorhandlingspringbootstarter;
+
+import io.micrometer.core.instrument.Clock;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.HttpStatus;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ErrorHandlingMetrics} implementation that publishes to a Micrometer {@link MeterRegistry}:
+ * <ul>
+ *     <li><code>error.handling.errors</code>: counter of the handled exceptions</li>
+ *     <li><code>error.handling.duration</code>: timer of the handling of the exceptions</li>
+ * </ul>
+ * Both meters are tagged with the error <code>code</code>, the HTTP <code>status</code> and the <code>handler</code> class.
+ * The meters are registered once for each combination of tags, after that they are taken from a local cache.
+ */
+public class MicrometerErrorHandlingMetrics implements ErrorHandlingMetrics {
+    static final String ERRORS_METER_NAME = "error.handling.errors";
+    static final String DURATION_METER_NAME = "error.handling.duration";
+
+    private static final String UNKNOWN_CODE = "UNKNOWN";
+
+    private final MeterRegistry registry;
+    private final Clock clock;
+    private final ConcurrentMap<MeterKey, Meters> meters = new ConcurrentHashMap<>();
+
+    public MicrometerErrorHandlingMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.clock = registry.config().clock();
+    }
+
+    @Override
+    public long startTime() {
+        return clock.monotonicTime();
+    }
+
+    @Override
+    public void record(long startTime,
+                       String code,
+                       HttpStatus httpStatus,
+                       Class<?> handlerClass) {
+        Meters meters = getMeters(new MeterKey(code != null ? code : UNKNOWN_CODE, httpStatus, handlerClass));
+        meters.counter.increment();
+        meters.timer.record(clock.monotonicTime() - startTime, TimeUnit.NANOSECONDS);
+    }
+
+    private Meters getMeters(MeterKey key) {
+        Meters result = meters.get(key);
+        if (result == null) {
+            result = meters.computeIfAbsent(key, this::createMeters);
+        }
+        return result;
+    }
+
+    private Meters createMeters(MeterKey key) {
+        Tags tags = Tags.of("code", key.code,
+                            "status", String.valueOf(key.httpStatus.value()),
+                            "handler", key.handlerClass.getName());
+        return new Meters(Counter.builder(ERRORS_METER_NAME)
+                                 .description("Number of exceptions handled by the error handling")
+                                 .tags(tags)
+                                 .register(registry),
+                          Timer.builder(DURATION_METER_NAME)
+                               .description("Time taken to handle the exceptions")
+                               .tags(tags)
+                               .register(registry));
+    }
+
+    private static final class Meters {
+        private final Counter counter;
+        private final Timer timer;
+
+        private Meters(Counter counter,
+                       Timer timer) {
+            this.counter = counter;
+            this.timer = timer;
+        }
+    }
+
+    private static final class MeterKey {
+        private final String code;
+        private final HttpStatus httpStatus;
+        private final Class<?> handlerClass;
+
+        private MeterKey(String code,
+                         HttpStatus httpStatus,
+                         Class<?> handlerClass) {
+            this.code = code;
+            this.httpStatus = httpStatus;
+            this.handlerClass = handlerClass;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            MeterKey meterKey = (MeterKey) o;
+            return code.equals(meterKey.code)
+                    && httpStatus == meterKey.httpStatus
+                    && handlerClass == meterKey.handlerClass;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = code.hashCode();
+            result = 31 * result + httpStatus.hashCode();
+            result = 31 * result + handlerClass.hashCode();
+            return result;
+        }
+    }
+}
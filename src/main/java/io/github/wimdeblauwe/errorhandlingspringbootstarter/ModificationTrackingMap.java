@@ -0,0 +1,85 @@
+package io.github.wimdeblauwe.errorhandlingspringbootstarter;
+
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * {@link Map} that notifies a listener on every modification. This is used by {@link ErrorHandlingProperties}
+ * so that a new snapshot of the properties is created after they have been changed.
+ * <p>
+ * The views returned by {@link #entrySet()}, {@link #keySet()} and {@link #values()} are read-only.
+ * <p>
+ * Request threads do not read this map, they read the immutable copy in the snapshot of the properties.
+ * The modifications and {@link #copy()} are synchronized, so a snapshot can be created while the map is changed.
+ */
+class ModificationTrackingMap<K, V> extends AbstractMap<K, V> {
+    private final Map<K, V> delegate;
+    private final Runnable modificationListener;
+
+    /**
+     * Constructor used by Spring Boot when it needs to copy the map during binding.
+     */
+    ModificationTrackingMap() {
+        this(Collections.emptyMap(), () -> {
+        });
+    }
+
+    ModificationTrackingMap(Map<? extends K, ? extends V> map,
+                            Runnable modificationListener) {
+        this.delegate = new HashMap<>(map);
+        this.modificationListener = modificationListener;
+    }
+
+    @Override
+    public synchronized int size() {
+        return delegate.size();
+    }
+
+    @Override
+    public synchronized boolean containsKey(Object key) {
+        return delegate.containsKey(key);
+    }
+
+    @Override
+    public synchronized V get(Object key) {
+        return delegate.get(key);
+    }
+
+    @Override
+    public synchronized V put(K key, V value) {
+        V previous = delegate.put(key, value);
+        modificationListener.run();
+        return previous;
+    }
+
+    @Override
+    public synchronized void putAll(Map<? extends K, ? extends V> map) {
+        delegate.putAll(map);
+        modificationListener.run();
+    }
+
+    @Override
+    public synchronized V remove(Object key) {
+        V previous = delegate.remove(key);
+        modificationListener.run();
+        return previous;
+    }
+
+    @Override
+    public synchronized void clear() {
+        delegate.clear();
+        modificationListener.run();
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        return Collections.unmodifiableMap(delegate).entrySet();
+    }
+
+    synchronized Map<K, V> copy() {
+        return new HashMap<>(delegate);
+    }
+}
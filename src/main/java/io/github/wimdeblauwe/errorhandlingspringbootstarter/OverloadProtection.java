@@ -0,0 +1,131 @@
+package io.github.wimdeblauwe.errorhandlingspringbootstarter;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Tracks the number of handled exceptions in a sliding window and switches to overload mode when
+ * the number exceeds a threshold (See {@link ErrorHandlingProperties.Overload}).
+ * <p>
+ * In overload mode, the exceptions that are handled by the {@link FallbackApiExceptionHandler} get a
+ * precomputed response per HTTP status and error code, and only 1 in N exceptions is logged.
+ * Overload mode ends when the number of exceptions in the window drops to half of the threshold.
+ * Both transitions are logged. The current mode is available via {@link #isOverloaded()}.
+ * <p>
+ * The window is divided in buckets with lock-free counters, so recording an exception does not contend
+ * with other request threads.
+ */
+public class OverloadProtection {
+    private static final int BUCKETS = 10;
+
+    private final int threshold;
+    private final Duration window;
+    private final int logSampleRate;
+    private final long bucketNanos;
+    private final LongSupplier nanoClock;
+    private final Logger logger;
+    private final AtomicLongArray bucketIds = new AtomicLongArray(BUCKETS);
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicBoolean overloaded = new AtomicBoolean();
+    private final AtomicLong logSampleCounter = new AtomicLong();
+    private final LongAdder suppressedLogCount = new LongAdder();
+
+    public OverloadProtection(int threshold,
+                              Duration window,
+                              int logSampleRate) {
+        this(threshold, window, logSampleRate, System::nanoTime, LoggerFactory.getLogger(OverloadProtection.class));
+    }
+
+    OverloadProtection(int threshold,
+                       Duration window,
+                       int logSampleRate,
+                       LongSupplier nanoClock,
+                       Logger logger) {
+        this.threshold = threshold;
+        this.window = window;
+        this.logSampleRate = Math.max(1, logSampleRate);
+        this.bucketNanos = Math.max(1, window.toNanos() / BUCKETS);
+        this.nanoClock = nanoClock;
+        this.logger = logger;
+        for (int i = 0; i < BUCKETS; i++) {
+            bucketIds.set(i, Long.MIN_VALUE);
+        }
+    }
+
+    /**
+     * @return <code>true</code> if the number of exceptions in the current window puts the error handling in overload mode
+     */
+    public boolean isOverloaded() {
+        return update(getErrorCount(Math.floorDiv(nanoClock.getAsLong(), bucketNanos)));
+    }
+
+    /**
+     * Count an exception that is handled.
+     *
+     * @return <code>true</code> if the error handling is in overload mode
+     */
+    boolean recordError() {
+        long bucketId = Math.floorDiv(nanoClock.getAsLong(), bucketNanos);
+        int index = (int) Math.floorMod(bucketId, (long) BUCKETS);
+        long currentBucketId = bucketIds.get(index);
+        if (currentBucketId != bucketId && bucketIds.compareAndSet(index, currentBucketId, bucketId)) {
+            counts.set(index, 0);
+        }
+        counts.incrementAndGet(index);
+        return update(getErrorCount(bucketId));
+    }
+
+    /**
+     * Determine if an exception that is handled in overload mode should be logged.
+     *
+     * @return <code>true</code> for 1 in {@link ErrorHandlingProperties.Overload#getLogSampleRate()} exceptions
+     */
+    boolean shouldLog() {
+        if (logSampleCounter.getAndIncrement() % logSampleRate == 0) {
+            return true;
+        }
+        suppressedLogCount.increment();
+        return false;
+    }
+
+    private long getErrorCount(long bucketId) {
+        long result = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            long id = bucketIds.get(i);
+            if (id > bucketId - BUCKETS && id <= bucketId) {
+                result += counts.get(i);
+            }
+        }
+        return result;
+    }
+
+    private boolean update(long errorCount) {
+        if (!overloaded.get()) {
+            if (errorCount > threshold && overloaded.compareAndSet(false, true)) {
+                logSampleCounter.set(0);
+                logger.warn(String.format(Locale.ROOT,
+                                          "Handled %,d exceptions in the last %s, switching to overload mode",
+                                          errorCount,
+                                          ExceptionLogRateLimiter.formatDuration(window)));
+            }
+            return errorCount > threshold;
+        }
+        if (errorCount <= threshold / 2 && overloaded.compareAndSet(true, false)) {
+            logger.warn(String.format(Locale.ROOT,
+                                      "Handled %,d exceptions in the last %s, leaving overload mode (%,d exceptions were not logged)",
+                                      errorCount,
+                                      ExceptionLogRateLimiter.formatDuration(window),
+                                      suppressedLogCount.sumThenReset()));
+            return false;
+        }
+        return overloaded.get();
+    }
+}
@@ -0,0 +1,135 @@
+package io.github.wimdeblauwe.errorhandlingspringbootstarter;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable index of the code and message overrides that are configured via {@link ErrorHandlingProperties#getCodes()}
+ * and {@link ErrorHandlingProperties#getMessages()}.
+ * <p>
+ * Keys of the form <code>field.code</code> are also indexed per code and field, so a field specific override can be
+ * looked up without concatenating the field and the code. The code and the message of a key are resolved together
+ * in a single {@link Entry}.
+ */
+public final class OverrideIndex {
+    private final long revision;
+    private final Map<String, Entry> entries;
+    private final Map<String, Map<String, Entry>> fieldEntries;
+    private final boolean indexedKeyPresent;
+
+    private OverrideIndex(long revision,
+                          Map<String, Entry> entries,
+                          Map<String, Map<String, Entry>> fieldEntries,
+                          boolean indexedKeyPresent) {
+        this.revision = revision;
+        this.entries = entries;
+        this.fieldEntries = fieldEntries;
+        this.indexedKeyPresent = indexedKeyPresent;
+    }
+
+    /**
+     * Creates the index for the codes and messages of the current snapshot of the properties.
+     */
+    public static OverrideIndex of(ErrorHandlingProperties properties) {
+        ErrorHandlingProperties snapshot = properties.snapshot();
+        long revision = snapshot.getRevision();
+        Map<String, String> codes = snapshot.getCodes();
+        Map<String, String> messages = snapshot.getMessages();
+
+        Map<String, Entry> entries = new HashMap<>();
+        for (Map.Entry<String, String> code : codes.entrySet()) {
+            entries.put(code.getKey(), new Entry(code.getValue(), messages.get(code.getKey())));
+        }
+        for (Map.Entry<String, String> message : messages.entrySet()) {
+            if (!codes.containsKey(message.getKey())) {
+                entries.put(message.getKey(), new Entry(null, message.getValue()));
+            }
+        }
+
+        Map<String, Map<String, Entry>> fieldEntries = new HashMap<>();
+        boolean indexedKeyPresent = false;
+        for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+            String key = entry.getKey();
+            indexedKeyPresent |= key.indexOf('[') >= 0;
+            int separator = key.lastIndexOf('.');
+            if (separator <= 0 || separator == key.length() - 1) {
+                continue;
+            }
+            String field = key.substring(0, separator);
+            String code = key.substring(separator + 1);
+            Entry fieldEntry = entry.getValue().orElse(entries.get(code));
+            fieldEntries.computeIfAbsent(code, c -> new HashMap<>()).put(field, fieldEntry);
+        }
+
+        return new OverrideIndex(revision, entries, fieldEntries, indexedKeyPresent);
+    }
+
+    /**
+     * @return the revision of the snapshot of the {@link ErrorHandlingProperties} this index was created for
+     */
+    public long getRevision() {
+        return revision;
+    }
+
+    /**
+     * @return the overrides for the given key, or <code>null</code> if there are none
+     */
+    public Entry get(String key) {
+        return entries.get(key);
+    }
+
+    /**
+     * Returns the overrides for a code on a specific field. The overrides configured
+     * for <code>field.code</code> take precedence over the ones configured for <code>code</code>.
+     *
+     * @return the overrides, or <code>null</code> if there are none
+     */
+    public Entry get(String field,
+                     String code) {
+        Map<String, Entry> entriesByField = fieldEntries.get(code);
+        if (entriesByField != null) {
+            Entry entry = entriesByField.get(field);
+            if (entry != null) {
+                return entry;
+            }
+        }
+        return entries.get(code);
+    }
+
+    /**
+     * @return <code>true</code> if one of the keys refers to an element of a list or map (e.g. <code>items[0].name</code>)
+     */
+    public boolean hasIndexedKey() {
+        return indexedKeyPresent;
+    }
+
+    /**
+     * The overridden code and message for a key. Both are <code>null</code> if they are not overridden.
+     */
+    public static final class Entry {
+        private final String code;
+        private final String message;
+
+        private Entry(String code,
+                      String message) {
+            this.code = code;
+            this.message = message;
+        }
+
+        public String getCode() {
+            return code;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        private Entry orElse(Entry other) {
+            if (other == null || code != null && message != null) {
+                return this;
+            }
+            return new Entry(code != null ? code : other.code,
+                             message != null ? message : other.message);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package io.github.wimdeblauwe.errorhandlingspringbootstarter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.PropertySource;
+
+import java.util.List;
+
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@EnableConfigurationProperties(ErrorHandlingProperties.class)
+@ConditionalOnProperty(value = "error.handling.enabled", matchIfMissing = true)
+@PropertySource("classpath:/error-handling-defaults.properties")
+@Import(ErrorHandlingCommonConfiguration.class)
+public class ReactiveErrorHandlingConfiguration {
+
+    @Bean
+    public ReactiveErrorHandlingWebExceptionHandler reactiveErrorHandlingWebExceptionHandler(ErrorHandlingProperties properties,
+                                                                                             List<ApiExceptionHandler> handlers,
+                                                                                             FallbackApiExceptionHandler fallbackApiExceptionHandler,
+                                                                                             ObjectMapper objectMapper,
+                                                                                             ObjectProvider<ErrorHandlingMetrics> metrics,
+                                                                                             ObjectProvider<AsyncExceptionLogger> asyncExceptionLogger,
+                                                                                             ObjectProvider<ErrorMessageLocalizer> messageLocalizer,
+                                                                                             ObjectProvider<OverloadProtection> overloadProtection) {
+        return new ReactiveErrorHandlingWebExceptionHandler(properties,
+                                                            handlers,
+                                                            fallbackApiExceptionHandler,
+                                                            objectMapper,
+                                                            metrics.getIfAvailable(() -> ErrorHandlingMetrics.NONE),
+                                                            asyncExceptionLogger.getIfAvailable(),
+                                                            messageLocalizer.getIfAvailable(),
+                                                            overloadProtection.getIfAvailable());
+    }
+}
@@ -0,0 +1,201 @@
+package io.github.wimdeblauwe.errorhandlingspringbootstarter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebExceptionHandler;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link WebExceptionHandler} that creates the error response for Spring WebFlux applications with the
+ * same {@link ApiExceptionHandler} instances and {@link FallbackApiExceptionHandler} as the Spring MVC integration.
+ * <p>
+ * The JSON response is written directly into a {@link DataBuffer} of the response, so no intermediate
+ * copy is made and the event loop is never blocked.
+ * <p>
+ * Only API requests are handled (See {@link ErrorHandlingProperties.Reactive}), the other requests are left to the
+ * default error handling of Spring Boot.
+ */
+public class ReactiveErrorHandlingWebExceptionHandler implements WebExceptionHandler, Ordered, ExceptionClassWarmUp, DisposableBean {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReactiveErrorHandlingWebExceptionHandler.class);
+
+    /**
+     * Runs before the <code>DefaultErrorWebExceptionHandler</code> of Spring Boot, which has order <code>-1</code>.
+     */
+    private static final int ORDER = -2;
+
+    private final ErrorHandlingProperties properties;
+    private final ApiExceptionHandlerChain handlerChain;
+    private final ObjectMapper objectMapper;
+    private volatile PathPatterns pathPatterns;
+
+    /**
+     * Constructor used by the auto-configuration, the optional collaborators can be <code>null</code>.
+     */
+    ReactiveErrorHandlingWebExceptionHandler(ErrorHandlingProperties properties,
+                                             List<ApiExceptionHandler> handlers,
+                                             FallbackApiExceptionHandler fallbackHandler,
+                                             ObjectMapper objectMapper,
+                                             ErrorHandlingMetrics metrics,
+                                             AsyncExceptionLogger asyncExceptionLogger,
+                                             ErrorMessageLocalizer messageLocalizer,
+                                             OverloadProtection overloadProtection) {
+        this.properties = properties;
+        this.handlerChain = new ApiExceptionHandlerChain(properties,
+                                                         handlers,
+                                                         fallbackHandler,
+                                                         objectMapper,
+                                                         metrics,
+                                                         asyncExceptionLogger,
+                                                         messageLocalizer,
+                                                         overloadProtection,
+                                                         LOGGER);
+        this.objectMapper = objectMapper;
+        this.pathPatterns = new PathPatterns(properties.snapshot());
+
+        LOGGER.info("Error Handling Spring Boot Starter active with {} handlers", handlers.size());
+        LOGGER.debug("Handlers: {}", handlers);
+    }
+
+    @Override
+    public Mono<Void> handle(ServerWebExchange exchange,
+                             Throwable exception) {
+        ServerHttpResponse response = exchange.getResponse();
+        if (response.isCommitted() || !isApiRequest(exchange.getRequest())) {
+            return Mono.error(exception);
+        }
+
+        ResponseEntity<?> responseEntity = handlerChain.handle(exception, exchange.getLocaleContext().getLocale());
+        DataBuffer buffer;
+        try {
+            buffer = writeBody(response, responseEntity.getBody());
+        } catch (IOException e) {
+            LOGGER.error("Unable to write error response", e);
+            return Mono.error(exception);
+        }
+
+        response.setStatusCode(responseEntity.getStatusCode());
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        return response.writeWith(Mono.just(buffer));
+    }
+
+    @Override
+    public void warmUp(Class<? extends Throwable> exceptionClass) {
+        handlerChain.warmUp(exceptionClass);
+    }
+
+    @Override
+    public void destroy() {
+        handlerChain.close();
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    /**
+     * If path patterns are configured, only the requests that match one of them are API requests.
+     * Otherwise, all requests are API requests except the ones that accept HTML, like the requests of a browser.
+     */
+    private boolean isApiRequest(ServerHttpRequest request) {
+        List<PathPattern> patterns = getPathPatterns().patterns;
+        if (!patterns.isEmpty()) {
+            PathContainer path = request.getPath().pathWithinApplication();
+            for (PathPattern pattern : patterns) {
+                if (pattern.matches(path)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        List<MediaType> acceptedMediaTypes;
+        try {
+            acceptedMediaTypes = request.getHeaders().getAccept();
+        } catch (InvalidMediaTypeException e) {
+            return true;
+        }
+        for (MediaType mediaType : acceptedMediaTypes) {
+            if (!mediaType.equalsTypeAndSubtype(MediaType.ALL) && mediaType.isCompatibleWith(MediaType.TEXT_HTML)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private PathPatterns getPathPatterns() {
+        PathPatterns result = pathPatterns;
+        ErrorHandlingProperties snapshot = properties.snapshot();
+        if (result.revision != snapshot.getRevision()) {
+            try {
+                result = new PathPatterns(snapshot);
+            } catch (RuntimeException e) {
+                LOGGER.warn("Unable to parse the changed path patterns, the current path patterns are kept", e);
+                result = new PathPatterns(snapshot.getRevision(), result.patterns);
+            }
+            pathPatterns = result;
+        }
+        return result;
+    }
+
+    private DataBuffer writeBody(ServerHttpResponse response,
+                                 Object body) throws IOException {
+        if (body instanceof byte[]) {
+            return response.bufferFactory().wrap((byte[]) body);
+        }
+
+        DataBuffer buffer = response.bufferFactory().allocateBuffer();
+        boolean release = true;
+        try {
+            objectMapper.writeValue(buffer.asOutputStream(), body);
+            release = false;
+        } finally {
+            if (release) {
+                DataBufferUtils.release(buffer);
+            }
+        }
+        return buffer;
+    }
+
+    private static final class PathPatterns {
+        private final long revision;
+        private final List<PathPattern> patterns;
+
+        private PathPatterns(ErrorHandlingProperties snapshot) {
+            this(snapshot.getRevision(), parse(snapshot.getReactive().getPathPatterns()));
+        }
+
+        private PathPatterns(long revision,
+                             List<PathPattern> patterns) {
+            this.revision = revision;
+            this.patterns = patterns;
+        }
+
+        private static List<PathPattern> parse(List<String> pathPatterns) {
+            PathPatternParser parser = new PathPatternParser();
+            List<PathPattern> result = new ArrayList<>(pathPatterns.size());
+            for (String pathPattern : pathPatterns) {
+                result.add(parser.parse(pathPattern));
+            }
+            return result;
+        }
+    }
+}
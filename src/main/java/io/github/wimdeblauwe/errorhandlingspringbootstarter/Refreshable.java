@@ -0,0 +1,16 @@
+package io.github.wimdeblauwe.errorhandlingspringbootstarter;
+
+/**
+ * Implemented by components that keep state which is derived from the {@link ErrorHandlingProperties}.
+ * That state is created again on first use after the properties have changed. Calling {@link #refresh()}
+ * does this in advance, so the first request after a configuration change does not have to.
+ *
+ * @see ErrorHandlingRefreshListener
+ */
+public interface Refreshable {
+    /**
+     * Create the state that is derived from the {@link ErrorHandlingProperties} again if the properties have changed.
+     * This method can be called concurrently with the handling of exceptions.
+     */
+    void refresh();
+}
@@ -0,0 +1,85 @@
+package io.github.wimdeblauwe.errorhandlingspringbootstarter;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.UndeclaredThrowableException;
+
+/**
+ * Precompiled accessor for a field or method that is annotated with {@link ResponseErrorProperty}.
+ * The reflective lookup happens once when the accessor is created, reading the value is a direct
+ * {@link MethodHandle} invocation.
+ */
+final class ResponseErrorPropertyAccessor {
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Throwable.class);
+
+    private final String propertyName;
+    private final boolean includeIfNull;
+    private final MethodHandle getter;
+    private final String description;
+
+    private ResponseErrorPropertyAccessor(String propertyName,
+                                          boolean includeIfNull,
+                                          MethodHandle getter,
+                                          String description) {
+        this.propertyName = propertyName;
+        this.includeIfNull = includeIfNull;
+        this.getter = getter;
+        this.description = description;
+    }
+
+    static ResponseErrorPropertyAccessor forField(Field field,
+                                                  String propertyName,
+                                                  boolean includeIfNull) throws IllegalAccessException {
+        field.setAccessible(true);
+        MethodHandle handle = MethodHandles.lookup().unreflectGetter(field);
+        return new ResponseErrorPropertyAccessor(propertyName,
+                                                 includeIfNull,
+                                                 adaptToGetterType(handle, Modifier.isStatic(field.getModifiers())),
+                                                 "field " + field.getDeclaringClass().getName() + "." + field.getName());
+    }
+
+    static ResponseErrorPropertyAccessor forMethod(Method method,
+                                                   String propertyName,
+                                                   boolean includeIfNull) throws IllegalAccessException {
+        method.setAccessible(true);
+        MethodHandle handle = MethodHandles.lookup().unreflect(method);
+        return new ResponseErrorPropertyAccessor(propertyName,
+                                                 includeIfNull,
+                                                 adaptToGetterType(handle, Modifier.isStatic(method.getModifiers())),
+                                                 "method " + method.getDeclaringClass().getName() + "." + method.getName());
+    }
+
+    private static MethodHandle adaptToGetterType(MethodHandle handle,
+                                                  boolean isStatic) {
+        if (isStatic) {
+            handle = MethodHandles.dropArguments(handle, 0, Throwable.class);
+        }
+        return handle.asType(GETTER_TYPE);
+    }
+
+    String getPropertyName() {
+        return propertyName;
+    }
+
+    boolean isIncludeIfNull() {
+        return includeIfNull;
+    }
+
+    String getDescription() {
+        return description;
+    }
+
+    Object getValue(Throwable exception) {
+        try {
+            return (Object) getter.invokeExact(exception);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new UndeclaredThrowableException(e);
+        }
+    }
+}
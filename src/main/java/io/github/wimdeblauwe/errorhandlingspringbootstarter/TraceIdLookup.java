@@ -0,0 +1,67 @@
+package io.github.wimdeblauwe.errorhandlingspringbootstarter;
+
+import org.slf4j.MDC;
+
+/**
+ * Looks up the trace or correlation id of the current request in the {@link MDC} (See {@link ErrorHandlingProperties.TraceId}).
+ * The configured keys are tried in order with {@link MDC#get(String)}, so the context map of the {@link MDC} is never copied.
+ * <p>
+ * A W3C <code>traceparent</code> value (<code>version-traceid-parentid-flags</code>) is reduced to the trace id.
+ */
+class TraceIdLookup {
+    private static final int TRACEPARENT_LENGTH = 55;
+
+    private final ErrorHandlingProperties properties;
+    private volatile MdcKeys mdcKeys;
+
+    TraceIdLookup(ErrorHandlingProperties properties) {
+        this.properties = properties;
+        this.mdcKeys = new MdcKeys(properties.snapshot());
+    }
+
+    /**
+     * @return the trace id of the current request, or <code>null</code> if the lookup is disabled or none of the keys is in the MDC
+     */
+    String getTraceId() {
+        ErrorHandlingProperties snapshot = properties.snapshot();
+        if (!snapshot.getTraceId().isEnabled()) {
+            return null;
+        }
+        for (String key : getMdcKeys(snapshot)) {
+            String value = MDC.get(key);
+            if (value != null && !value.isEmpty()) {
+                return isTraceparent(value) ? value.substring(3, 35) : value;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the configured keys as an array. It is only created again if the snapshot of the properties has changed.
+     */
+    private String[] getMdcKeys(ErrorHandlingProperties snapshot) {
+        MdcKeys result = mdcKeys;
+        if (result.revision != snapshot.getRevision()) {
+            result = new MdcKeys(snapshot);
+            mdcKeys = result;
+        }
+        return result.keys;
+    }
+
+    private static boolean isTraceparent(String value) {
+        return value.length() == TRACEPARENT_LENGTH
+                && value.charAt(2) == '-'
+                && value.charAt(35) == '-'
+                && value.charAt(52) == '-';
+    }
+
+    private static final class MdcKeys {
+        private final long revision;
+        private final String[] keys;
+
+        private MdcKeys(ErrorHandlingProperties snapshot) {
+            this.revision = snapshot.getRevision();
+            this.keys = snapshot.getTraceId().getMdcKeys().toArray(new String[0]);
+        }
+    }
+}
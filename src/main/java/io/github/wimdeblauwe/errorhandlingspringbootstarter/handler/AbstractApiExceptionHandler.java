@@ -1,32 +1,128 @@
 package io.github.wimdeblauwe.errorhandlingspringbootstarter.handler;
 
+import io.github.wimdeblauwe.errorhandlingspringbootstarter.ApiErrorResponse;
 import io.github.wimdeblauwe.errorhandlingspringbootstarter.ApiExceptionHandler;
 import io.github.wimdeblauwe.errorhandlingspringbootstarter.ErrorHandlingProperties;
+import io.github.wimdeblauwe.errorhandlingspringbootstarter.ExceptionHierarchyMapping;
+import io.github.wimdeblauwe.errorhandlingspringbootstarter.ExceptionMessages;
+import io.github.wimdeblauwe.errorhandlingspringbootstarter.OverrideIndex;
+import io.github.wimdeblauwe.errorhandlingspringbootstarter.Refreshable;
 
-public abstract class AbstractApiExceptionHandler implements ApiExceptionHandler {
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+
+public abstract class AbstractApiExceptionHandler implements ApiExceptionHandler, Refreshable {
     protected final ErrorHandlingProperties properties;
+    private volatile OverrideIndex overrideIndex;
 
     public AbstractApiExceptionHandler(ErrorHandlingProperties properties) {
         this.properties = properties;
+        this.overrideIndex = OverrideIndex.of(properties);
+    }
+
+    @Override
+    public void refresh() {
+        getOverrideIndex();
+        ExceptionHierarchyMapping.of(properties);
     }
 
+    /**
+     * @return the code that is configured for the class of the exception or its nearest superclass,
+     * or the full qualified name of the exception class if there is none
+     */
     protected String getErrorCode(Throwable exception) {
-        return replaceCodeWithConfiguredOverrideIfPresent(exception.getClass().getName());
+        String code = ExceptionHierarchyMapping.of(properties).getCode(exception.getClass());
+        return code != null ? code : exception.getClass().getName();
+    }
+
+    /**
+     * @return the message of the exception, which is only computed once while the exception is handled
+     * @see ExceptionMessages#getMessage(Throwable)
+     */
+    protected String getErrorMessage(Throwable exception) {
+        return ExceptionMessages.getMessage(exception);
     }
 
     protected String replaceCodeWithConfiguredOverrideIfPresent(String code) {
-        return properties.getCodes().getOrDefault(code, code);
+        OverrideIndex.Entry entry = getOverrideIndex().get(code);
+        return entry != null && entry.getCode() != null ? entry.getCode() : code;
     }
 
     protected boolean hasConfiguredOverrideForCode(String code) {
-        return properties.getCodes().containsKey(code);
+        OverrideIndex.Entry entry = getOverrideIndex().get(code);
+        return entry != null && entry.getCode() != null;
     }
 
     protected boolean hasConfiguredOverrideForMessage(String key) {
-        return properties.getMessages().containsKey(key);
+        return getOverrideMessage(key) != null;
     }
 
     protected String getOverrideMessage(String key) {
-        return properties.getMessages().get(key);
+        OverrideIndex.Entry entry = getOverrideIndex().get(key);
+        return entry != null ? entry.getMessage() : null;
+    }
+
+    /**
+     * Returns the index of the configured code and message overrides. The index is only created again
+     * if the properties have been changed.
+     */
+    protected OverrideIndex getOverrideIndex() {
+        OverrideIndex result = overrideIndex;
+        ErrorHandlingProperties snapshot = properties.snapshot();
+        if (result.getRevision() != snapshot.getRevision()) {
+            result = OverrideIndex.of(snapshot);
+            overrideIndex = result;
+        }
+        return result;
+    }
+
+    /**
+     * Indicate in the response that not all errors are included.
+     *
+     * @param response   the response
+     * @param errorCount the total number of errors
+     */
+    protected void markTruncated(ApiErrorResponse response,
+                                 int errorCount) {
+        response.addErrorProperty("truncated", true);
+        response.addErrorProperty("errorCount", errorCount);
+    }
+
+    /**
+     * Returns an {@link Iterable} that maps the elements of the source only when it is iterated. This is used
+     * with {@link ApiErrorResponse#addFieldErrors(Iterable)} so the errors are created while the response is serialized.
+     *
+     * @param source the source elements
+     * @param mapper maps a source element, returning <code>null</code> if the element should be skipped
+     * @param limit  the maximum number of mapped elements, or a negative value for no limit
+     */
+    protected static <S, T> Iterable<T> mapLazily(Iterable<S> source,
+                                                  Function<? super S, ? extends T> mapper,
+                                                  int limit) {
+        return () -> new Iterator<T>() {
+            private final Iterator<S> sourceIterator = source.iterator();
+            private int count;
+            private T next;
+
+            @Override
+            public boolean hasNext() {
+                while (next == null && (limit < 0 || count < limit) && sourceIterator.hasNext()) {
+                    next = mapper.apply(sourceIterator.next());
+                }
+                return next != null;
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                T result = next;
+                next = null;
+                count++;
+                return result;
+            }
+        };
     }
 }
@@ -4,6 +4,7 @@ import io.github.wimdeblauwe.errorhandlingspringbootstarter.ApiErrorResponse;
 import io.github.wimdeblauwe.errorhandlingspringbootstarter.ApiFieldError;
 import io.github.wimdeblauwe.errorhandlingspringbootstarter.ApiGlobalError;
 import io.github.wimdeblauwe.errorhandlingspringbootstarter.ErrorHandlingProperties;
+import io.github.wimdeblauwe.errorhandlingspringbootstarter.OverrideIndex;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
@@ -12,7 +13,16 @@ import javax.validation.ConstraintViolation;
 import javax.validation.ConstraintViolationException;
 import javax.validation.ElementKind;
 import javax.validation.Path;
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * {@link io.github.wimdeblauwe.errorhandlingspringbootstarter.ApiExceptionHandler} for
@@ -23,6 +33,13 @@ import java.util.Set;
  */
 public class ConstraintViolationApiExceptionHandler extends AbstractApiExceptionHandler {
     private static final Logger LOGGER = LoggerFactory.getLogger(ConstraintViolationApiExceptionHandler.class);
+    /**
+     * Recursive beans can have any number of property paths, so the number of cached resolutions
+     * per root bean class is limited.
+     */
+    static final int MAX_RESOLUTIONS_PER_CLASS = 256;
+
+    private volatile ResolutionCache resolutionCache;
 
     public ConstraintViolationApiExceptionHandler(ErrorHandlingProperties properties) {
         super(properties);
@@ -33,6 +50,17 @@ public class ConstraintViolationApiExceptionHandler extends AbstractApiException
         return exception instanceof ConstraintViolationException;
     }
 
+    @Override
+    public Set<Class<? extends Throwable>> handledTypes() {
+        return Collections.singleton(ConstraintViolationException.class);
+    }
+
+    @Override
+    public void refresh() {
+        super.refresh();
+        getResolutionCache();
+    }
+
     @Override
     public ApiErrorResponse handle(Throwable exception) {
 
@@ -40,34 +68,83 @@ public class ConstraintViolationApiExceptionHandler extends AbstractApiException
         ApiErrorResponse response = new ApiErrorResponse(HttpStatus.BAD_REQUEST,
                                                          getErrorCode(exception),
                                                          getMessage(ex));
+        ResolutionCache cache = getResolutionCache();
         Set<ConstraintViolation<?>> violations = ex.getConstraintViolations();
-        violations.stream()
-                  .map(constraintViolation -> {
-                      ElementKind elementKind = getElementKindOfLastNode(constraintViolation.getPropertyPath());
-                      if (elementKind == ElementKind.PROPERTY) {
-                          return new ApiFieldError(getCode(constraintViolation),
-                                                   constraintViolation.getPropertyPath().toString(),
-                                                   getMessage(constraintViolation),
-                                                   constraintViolation.getInvalidValue());
-                      } else if (elementKind == ElementKind.BEAN) {
-                          return new ApiGlobalError(getCode(constraintViolation),
-                                                    getMessage(constraintViolation));
-                      } else {
-                          LOGGER.warn("Unable to convert constraint violation with element kind {}: {}", elementKind, constraintViolation);
-                          return null;
-                      }
-                  })
-                  .forEach(error -> {
-                      if (error instanceof ApiFieldError) {
-                          response.addFieldError((ApiFieldError) error);
-                      } else if (error instanceof ApiGlobalError) {
-                          response.addGlobalError((ApiGlobalError) error);
-                      }
-                  });
+        ErrorHandlingProperties properties = this.properties.snapshot();
+        int maxFieldErrors = properties.getMaxFieldErrors();
+        int maxGlobalErrors = properties.getMaxGlobalErrors();
+
+        // The violations are split in a single pass, the errors themselves are only created while the response is serialized
+        List<ConstraintViolation<?>> fieldViolations = new ArrayList<>();
+        List<ConstraintViolation<?>> globalViolations = new ArrayList<>();
+        int fieldErrorCount = 0;
+        int globalErrorCount = 0;
+        for (ConstraintViolation<?> constraintViolation : violations) {
+            ElementKind elementKind = getElementKindOfLastNode(constraintViolation.getPropertyPath());
+            if (elementKind == ElementKind.PROPERTY) {
+                if (maxFieldErrors < 0 || fieldErrorCount < maxFieldErrors) {
+                    fieldViolations.add(constraintViolation);
+                }
+                fieldErrorCount++;
+            } else if (elementKind == ElementKind.BEAN) {
+                if (maxGlobalErrors < 0 || globalErrorCount < maxGlobalErrors) {
+                    globalViolations.add(constraintViolation);
+                }
+                globalErrorCount++;
+            } else {
+                LOGGER.warn("Unable to convert constraint violation with element kind {}: {}", elementKind, constraintViolation);
+            }
+        }
+        response.addFieldErrors(mapLazily(fieldViolations, violation -> toApiFieldError(violation, cache), -1));
+        response.addGlobalErrors(mapLazily(globalViolations, violation -> toApiGlobalError(violation, cache), -1));
 
+        if (maxFieldErrors >= 0 && fieldErrorCount > maxFieldErrors
+                || maxGlobalErrors >= 0 && globalErrorCount > maxGlobalErrors) {
+            markTruncated(response, violations.size());
+        }
         return response;
     }
 
+    private ApiFieldError toApiFieldError(ConstraintViolation<?> constraintViolation,
+                                          ResolutionCache cache) {
+        ViolationResolution resolution = getResolution(constraintViolation, cache);
+        return new ApiFieldError(resolution.code,
+                                 constraintViolation.getPropertyPath().toString(),
+                                 getMessage(resolution, constraintViolation),
+                                 constraintViolation.getInvalidValue());
+    }
+
+    private ApiGlobalError toApiGlobalError(ConstraintViolation<?> constraintViolation,
+                                            ResolutionCache cache) {
+        ViolationResolution resolution = getResolution(constraintViolation, cache);
+        return new ApiGlobalError(resolution.code,
+                                  getMessage(resolution, constraintViolation));
+    }
+
+    private ViolationResolution getResolution(ConstraintViolation<?> constraintViolation,
+                                              ResolutionCache cache) {
+        Path propertyPath = constraintViolation.getPropertyPath();
+        if (!cache.enabled) {
+            return resolve(propertyPath.toString(), getAnnotationType(constraintViolation));
+        }
+
+        ConcurrentMap<ViolationKey, ViolationResolution> resolutions = cache.resolutions.get(constraintViolation.getRootBeanClass());
+        ViolationKey key = new ViolationKey(propertyPath, getAnnotationType(constraintViolation));
+        ViolationResolution resolution = resolutions.get(key);
+        if (resolution == null) {
+            resolution = resolve(propertyPath.toString(), key.annotationType);
+            if (resolutions.size() < MAX_RESOLUTIONS_PER_CLASS) {
+                resolutions.putIfAbsent(key.normalize(), resolution);
+            }
+        }
+        return resolution;
+    }
+
+    private static String getMessage(ViolationResolution resolution,
+                                     ConstraintViolation<?> constraintViolation) {
+        return resolution.message != null ? resolution.message : constraintViolation.getMessage();
+    }
+
     private ElementKind getElementKindOfLastNode(Path path) {
         ElementKind result = null;
         for (Path.Node node : path) {
@@ -77,29 +154,170 @@ public class ConstraintViolationApiExceptionHandler extends AbstractApiException
         return result;
     }
 
-    private String getCode(ConstraintViolation<?> constraintViolation) {
-        String code = constraintViolation.getConstraintDescriptor().getAnnotation().annotationType().getSimpleName();
-        String fieldSpecificCode = constraintViolation.getPropertyPath().toString() + "." + code;
-        if (hasConfiguredOverrideForCode(fieldSpecificCode)) {
-            return replaceCodeWithConfiguredOverrideIfPresent(fieldSpecificCode);
-        }
-        return replaceCodeWithConfiguredOverrideIfPresent(code);
+    private static Class<? extends Annotation> getAnnotationType(ConstraintViolation<?> constraintViolation) {
+        return constraintViolation.getConstraintDescriptor().getAnnotation().annotationType();
     }
 
-    private String getMessage(ConstraintViolation<?> constraintViolation) {
-        String code = constraintViolation.getConstraintDescriptor().getAnnotation().annotationType().getSimpleName();
-        String fieldSpecificCode = constraintViolation.getPropertyPath().toString() + "." + code;
-        if (hasConfiguredOverrideForMessage(fieldSpecificCode)) {
-            return getOverrideMessage(fieldSpecificCode);
+    private ViolationResolution resolve(String propertyPath,
+                                        Class<? extends Annotation> annotationType) {
+        String code = annotationType.getSimpleName();
+        OverrideIndex.Entry overrides = getOverrideIndex().get(propertyPath, code);
+        if (overrides == null) {
+            return new ViolationResolution(code, null);
         }
+        return new ViolationResolution(overrides.getCode() != null ? overrides.getCode() : code,
+                                       overrides.getMessage());
+    }
 
-        if (hasConfiguredOverrideForMessage(code)) {
-            return getOverrideMessage(code);
+    private ResolutionCache getResolutionCache() {
+        ResolutionCache result = resolutionCache;
+        long revision = properties.snapshot().getRevision();
+        if (result == null || result.revision != revision) {
+            // Overrides for a specific element of a list or map can not be resolved with the normalized property path
+            result = new ResolutionCache(revision, !getOverrideIndex().hasIndexedKey());
+            resolutionCache = result;
         }
-        return constraintViolation.getMessage();
+        return result;
     }
 
     private String getMessage(ConstraintViolationException exception) {
         return "Validation failed. Error count: " + exception.getConstraintViolations().size();
     }
+
+    /**
+     * Cache of the code and message resolution per root bean class, normalized property path and constraint annotation.
+     * A new cache is created when the properties change.
+     * <p>
+     * The resolutions are attached to the root bean class with a {@link ClassValue}, so the cache does not keep
+     * the classes (and their class loaders) of undeployed applications alive.
+     */
+    private static final class ResolutionCache {
+        private final long revision;
+        private final boolean enabled;
+        private final ClassValue<ConcurrentMap<ViolationKey, ViolationResolution>> resolutions = new ClassValue<ConcurrentMap<ViolationKey, ViolationResolution>>() {
+            @Override
+            protected ConcurrentMap<ViolationKey, ViolationResolution> computeValue(Class<?> type) {
+                return new ConcurrentHashMap<>();
+            }
+        };
+
+        private ResolutionCache(long revision,
+                                boolean enabled) {
+            this.revision = revision;
+            this.enabled = enabled;
+        }
+    }
+
+    /**
+     * Key of a resolution in the cache. The index or key of elements in a container is left out, so all elements share
+     * the same resolution.
+     * <p>
+     * A key that is used for a lookup compares the nodes of the {@link Path} of the violation, so no normalized path is
+     * built for each violation. Only the key that is stored in the cache copies the names of the nodes
+     * (See {@link #normalize()}), so the cache does not keep the path and the values of the violation.
+     */
+    private static final class ViolationKey {
+        private final Path path;
+        private final String[] nodeNames;
+        private final boolean[] inIterable;
+        private final Class<? extends Annotation> annotationType;
+        private final int hashCode;
+
+        private ViolationKey(Path path,
+                             Class<? extends Annotation> annotationType) {
+            this.path = path;
+            this.nodeNames = null;
+            this.inIterable = null;
+            this.annotationType = annotationType;
+            int result = annotationType.hashCode();
+            for (Path.Node node : path) {
+                result = 31 * (31 * result + Boolean.hashCode(node.isInIterable())) + Objects.hashCode(node.getName());
+            }
+            this.hashCode = result;
+        }
+
+        private ViolationKey(String[] nodeNames,
+                             boolean[] inIterable,
+                             Class<? extends Annotation> annotationType,
+                             int hashCode) {
+            this.path = null;
+            this.nodeNames = nodeNames;
+            this.inIterable = inIterable;
+            this.annotationType = annotationType;
+            this.hashCode = hashCode;
+        }
+
+        /**
+         * @return a key with the same nodes that does not refer to the path of the violation
+         */
+        private ViolationKey normalize() {
+            if (path == null) {
+                return this;
+            }
+            List<String> names = new ArrayList<>();
+            List<Boolean> iterables = new ArrayList<>();
+            for (Path.Node node : path) {
+                names.add(node.getName());
+                iterables.add(node.isInIterable());
+            }
+            boolean[] inIterable = new boolean[iterables.size()];
+            for (int i = 0; i < inIterable.length; i++) {
+                inIterable[i] = iterables.get(i);
+            }
+            return new ViolationKey(names.toArray(new String[0]), inIterable, annotationType, hashCode);
+        }
+
+        private boolean hasNodes(Path path) {
+            if (this.path != null) {
+                return normalize().hasNodes(path);
+            }
+            int index = 0;
+            for (Iterator<Path.Node> iterator = path.iterator(); iterator.hasNext(); index++) {
+                Path.Node node = iterator.next();
+                if (index == nodeNames.length
+                        || inIterable[index] != node.isInIterable()
+                        || !Objects.equals(nodeNames[index], node.getName())) {
+                    return false;
+                }
+            }
+            return index == nodeNames.length;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            ViolationKey that = (ViolationKey) o;
+            if (hashCode != that.hashCode || annotationType != that.annotationType) {
+                return false;
+            }
+            if (path != null) {
+                return that.hasNodes(path);
+            }
+            if (that.path != null) {
+                return hasNodes(that.path);
+            }
+            return Arrays.equals(nodeNames, that.nodeNames) && Arrays.equals(inIterable, that.inIterable);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+    private static final class ViolationResolution {
+        private final String code;
+        private final String message;
+
+        private ViolationResolution(String code,
+                                    String message) {
+            this.code = code;
+            this.message = message;
+        }
+    }
 }
@@ -5,6 +5,9 @@ import io.github.wimdeblauwe.errorhandlingspringbootstarter.ErrorHandlingPropert
 import org.springframework.http.HttpStatus;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 
+import java.util.Collections;
+import java.util.Set;
+
 /**
  * {@link io.github.wimdeblauwe.errorhandlingspringbootstarter.ApiExceptionHandler} for
  * {@link HttpMessageNotReadableException}. This typically happens when Spring can't properly
@@ -20,11 +23,16 @@ public class HttpMessageNotReadableApiExceptionHandler extends AbstractApiExcept
         return exception instanceof HttpMessageNotReadableException;
     }
 
+    @Override
+    public Set<Class<? extends Throwable>> handledTypes() {
+        return Collections.singleton(HttpMessageNotReadableException.class);
+    }
+
     @Override
     public ApiErrorResponse handle(Throwable exception) {
         return new ApiErrorResponse(HttpStatus.BAD_REQUEST,
-                                    replaceCodeWithConfiguredOverrideIfPresent(exception.getClass().getName()),
-                                    exception.getMessage());
+                                    getErrorCode(exception),
+                                    getErrorMessage(exception));
     }
 
 }
@@ -4,12 +4,16 @@ import io.github.wimdeblauwe.errorhandlingspringbootstarter.ApiErrorResponse;
 import io.github.wimdeblauwe.errorhandlingspringbootstarter.ApiFieldError;
 import io.github.wimdeblauwe.errorhandlingspringbootstarter.ApiGlobalError;
 import io.github.wimdeblauwe.errorhandlingspringbootstarter.ErrorHandlingProperties;
+import io.github.wimdeblauwe.errorhandlingspringbootstarter.OverrideIndex;
 import org.springframework.http.HttpStatus;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
 import org.springframework.validation.ObjectError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 
+import java.util.Collections;
+import java.util.Set;
+
 /**
  * Class to handle {@link MethodArgumentNotValidException} exceptions. This is typically
  * used when `@Valid` is used on {@link org.springframework.web.bind.annotation.RestController}
@@ -26,6 +30,11 @@ public class MethodArgumentNotValidApiExceptionHandler extends AbstractApiExcept
         return exception instanceof MethodArgumentNotValidException;
     }
 
+    @Override
+    public Set<Class<? extends Throwable>> handledTypes() {
+        return Collections.singleton(MethodArgumentNotValidException.class);
+    }
+
     @Override
     public ApiErrorResponse handle(Throwable exception) {
 
@@ -34,42 +43,41 @@ public class MethodArgumentNotValidApiExceptionHandler extends AbstractApiExcept
                                                          getErrorCode(exception),
                                                          getMessage(ex));
         BindingResult bindingResult = ex.getBindingResult();
+        ErrorHandlingProperties properties = this.properties.snapshot();
+        int maxFieldErrors = properties.getMaxFieldErrors();
+        int maxGlobalErrors = properties.getMaxGlobalErrors();
         if (bindingResult.hasFieldErrors()) {
-            bindingResult.getFieldErrors().stream()
-                         .map(fieldError -> new ApiFieldError(getCode(fieldError),
-                                                              fieldError.getField(),
-                                                              getMessage(fieldError),
-                                                              fieldError.getRejectedValue()))
-                         .forEach(response::addFieldError);
+            response.addFieldErrors(mapLazily(bindingResult.getFieldErrors(), this::toApiFieldError, maxFieldErrors));
         }
-
         if (bindingResult.hasGlobalErrors()) {
-            bindingResult.getGlobalErrors().stream()
-                         .map(globalError -> new ApiGlobalError(replaceCodeWithConfiguredOverrideIfPresent(globalError.getCode()),
-                                                                getMessage(globalError)))
-                         .forEach(response::addGlobalError);
+            response.addGlobalErrors(mapLazily(bindingResult.getGlobalErrors(), this::toApiGlobalError, maxGlobalErrors));
         }
 
+        boolean truncated = maxFieldErrors >= 0 && bindingResult.getFieldErrorCount() > maxFieldErrors
+                || maxGlobalErrors >= 0 && bindingResult.getGlobalErrorCount() > maxGlobalErrors;
+        if (truncated) {
+            markTruncated(response, bindingResult.getErrorCount());
+        }
         return response;
     }
 
-    private String getCode(FieldError fieldError) {
-        String fieldSpecificCode = fieldError.getField() + "." + fieldError.getCode();
-        if (hasConfiguredOverrideForCode(fieldSpecificCode)) {
-            return replaceCodeWithConfiguredOverrideIfPresent(fieldSpecificCode);
+    private ApiFieldError toApiFieldError(FieldError fieldError) {
+        OverrideIndex.Entry overrides = getOverrideIndex().get(fieldError.getField(), fieldError.getCode());
+        if (overrides == null) {
+            return new ApiFieldError(fieldError.getCode(),
+                                     fieldError.getField(),
+                                     fieldError.getDefaultMessage(),
+                                     fieldError.getRejectedValue());
         }
-        return replaceCodeWithConfiguredOverrideIfPresent(fieldError.getCode());
+        return new ApiFieldError(overrides.getCode() != null ? overrides.getCode() : fieldError.getCode(),
+                                 fieldError.getField(),
+                                 overrides.getMessage() != null ? overrides.getMessage() : fieldError.getDefaultMessage(),
+                                 fieldError.getRejectedValue());
     }
 
-    private String getMessage(FieldError fieldError) {
-        String fieldSpecificKey = fieldError.getField() + "." + fieldError.getCode();
-        if (hasConfiguredOverrideForMessage(fieldSpecificKey)) {
-            return getOverrideMessage(fieldSpecificKey);
-        }
-        if (hasConfiguredOverrideForMessage(fieldError.getCode())) {
-            return getOverrideMessage(fieldError.getCode());
-        }
-        return fieldError.getDefaultMessage();
+    private ApiGlobalError toApiGlobalError(ObjectError globalError) {
+        return new ApiGlobalError(replaceCodeWithConfiguredOverrideIfPresent(globalError.getCode()),
+                                  getMessage(globalError));
     }
 
     private String getMessage(ObjectError objectError) {
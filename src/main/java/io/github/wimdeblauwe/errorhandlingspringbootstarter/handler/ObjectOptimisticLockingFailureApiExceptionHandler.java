@@ -5,6 +5,9 @@ import io.github.wimdeblauwe.errorhandlingspringbootstarter.ErrorHandlingPropert
 import org.springframework.http.HttpStatus;
 import org.springframework.orm.ObjectOptimisticLockingFailureException;
 
+import java.util.Collections;
+import java.util.Set;
+
 public class ObjectOptimisticLockingFailureApiExceptionHandler extends AbstractApiExceptionHandler {
 
     public ObjectOptimisticLockingFailureApiExceptionHandler(ErrorHandlingProperties properties) {
@@ -16,11 +19,16 @@ public class ObjectOptimisticLockingFailureApiExceptionHandler extends AbstractA
         return exception instanceof ObjectOptimisticLockingFailureException;
     }
 
+    @Override
+    public Set<Class<? extends Throwable>> handledTypes() {
+        return Collections.singleton(ObjectOptimisticLockingFailureException.class);
+    }
+
     @Override
     public ApiErrorResponse handle(Throwable exception) {
         ApiErrorResponse response = new ApiErrorResponse(HttpStatus.CONFLICT,
                                                          getErrorCode(exception),
-                                                         exception.getMessage());
+                                                         getErrorMessage(exception));
         ObjectOptimisticLockingFailureException ex = (ObjectOptimisticLockingFailureException) exception;
         response.addErrorProperty("identifier", ex.getIdentifier());
         response.addErrorProperty("persistentClassName", ex.getPersistentClassName());
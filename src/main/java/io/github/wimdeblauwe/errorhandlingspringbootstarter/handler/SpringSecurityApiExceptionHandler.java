@@ -7,14 +7,31 @@ import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.authentication.*;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 
 import static org.springframework.http.HttpStatus.*;
 
 public class SpringSecurityApiExceptionHandler extends AbstractApiExceptionHandler {
 
     private static final Map<Class<? extends Exception>, HttpStatus> EXCEPTION_TO_STATUS_MAPPING;
+    /**
+     * The status of the nearest mapped superclass, or <code>null</code> if the exception class is not mapped.
+     */
+    private static final ClassValue<HttpStatus> RESOLVED_STATUS = new ClassValue<HttpStatus>() {
+        @Override
+        protected HttpStatus computeValue(Class<?> exceptionClass) {
+            for (Class<?> type = exceptionClass; type != null; type = type.getSuperclass()) {
+                HttpStatus httpStatus = EXCEPTION_TO_STATUS_MAPPING.get(type);
+                if (httpStatus != null) {
+                    return httpStatus;
+                }
+            }
+            return null;
+        }
+    };
 
     static {
         EXCEPTION_TO_STATUS_MAPPING = new HashMap<>();
@@ -35,14 +52,22 @@ public class SpringSecurityApiExceptionHandler extends AbstractApiExceptionHandl
 
     @Override
     public boolean canHandle(Throwable exception) {
-        return EXCEPTION_TO_STATUS_MAPPING.containsKey(exception.getClass());
+        return RESOLVED_STATUS.get(exception.getClass()) != null;
+    }
+
+    @Override
+    public Set<Class<? extends Throwable>> handledTypes() {
+        return Collections.unmodifiableSet(EXCEPTION_TO_STATUS_MAPPING.keySet());
     }
 
     @Override
     public ApiErrorResponse handle(Throwable exception) {
-        HttpStatus httpStatus = EXCEPTION_TO_STATUS_MAPPING.getOrDefault(exception.getClass(), INTERNAL_SERVER_ERROR);
+        HttpStatus httpStatus = RESOLVED_STATUS.get(exception.getClass());
+        if (httpStatus == null) {
+            httpStatus = INTERNAL_SERVER_ERROR;
+        }
         return new ApiErrorResponse(httpStatus,
                                     getErrorCode(exception),
-                                    exception.getMessage());
+                                    getErrorMessage(exception));
     }
 }
@@ -6,6 +6,9 @@ import org.springframework.beans.TypeMismatchException;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
+import java.util.Collections;
+import java.util.Set;
+
 public class TypeMismatchApiExceptionHandler extends AbstractApiExceptionHandler {
     public TypeMismatchApiExceptionHandler(ErrorHandlingProperties properties) {
         super(properties);
@@ -16,11 +19,16 @@ public class TypeMismatchApiExceptionHandler extends AbstractApiExceptionHandler
         return exception instanceof TypeMismatchException;
     }
 
+    @Override
+    public Set<Class<? extends Throwable>> handledTypes() {
+        return Collections.singleton(TypeMismatchException.class);
+    }
+
     @Override
     public ApiErrorResponse handle(Throwable exception) {
         ApiErrorResponse response = new ApiErrorResponse(HttpStatus.BAD_REQUEST,
                                                          getErrorCode(exception),
-                                                         exception.getMessage());
+                                                         getErrorMessage(exception));
         TypeMismatchException ex = (TypeMismatchException) exception;
         response.addErrorProperty("property", getPropertyName(ex));
         response.addErrorProperty("rejectedValue", ex.getValue());
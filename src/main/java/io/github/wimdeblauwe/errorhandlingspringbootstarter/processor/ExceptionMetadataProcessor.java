@@ -0,0 +1,467 @@
+package io.github.wimdeblauwe.errorhandlingspringbootstarter.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.beans.Introspector;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Annotation processor that generates an {@link io.github.wimdeblauwe.errorhandlingspringbootstarter.ExceptionMetadata}
+ * implementation for each exception class that is annotated with <code>@ResponseStatus</code> or
+ * <code>@ResponseErrorCode</code>, or that has <code>@ResponseErrorProperty</code> members. The generated classes are
+ * registered in <code>META-INF/services</code>, so the
+ * {@link io.github.wimdeblauwe.errorhandlingspringbootstarter.DefaultFallbackApiExceptionHandler} does not need
+ * reflection for those exception classes.
+ * <p>
+ * No metadata is generated if the annotations are used as meta-annotations, as those are only supported at runtime.
+ */
+public class ExceptionMetadataProcessor extends AbstractProcessor {
+    static final String RESPONSE_STATUS = "org.springframework.web.bind.annotation.ResponseStatus";
+    static final String RESPONSE_ERROR_CODE = "io.github.wimdeblauwe.errorhandlingspringbootstarter.ResponseErrorCode";
+    static final String RESPONSE_ERROR_PROPERTY = "io.github.wimdeblauwe.errorhandlingspringbootstarter.ResponseErrorProperty";
+    static final String SERVICE_FILE = "META-INF/services/io.github.wimdeblauwe.errorhandlingspringbootstarter.ExceptionMetadata";
+    static final String METADATA_SUFFIX = "_ExceptionMetadata";
+
+    private static final Set<String> ANNOTATION_TYPES = new HashSet<>(Arrays.asList(RESPONSE_STATUS, RESPONSE_ERROR_CODE, RESPONSE_ERROR_PROPERTY));
+
+    private final Set<String> generatedClassNames = new TreeSet<>();
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return ANNOTATION_TYPES;
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations,
+                           RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            writeServiceFile();
+            return false;
+        }
+
+        Set<TypeElement> exceptionTypes = new LinkedHashSet<>();
+        for (TypeElement annotation : annotations) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                Element type = element.getKind().isClass() ? element : element.getEnclosingElement();
+                if (type != null && type.getKind() == ElementKind.CLASS && isThrowable((TypeElement) type)) {
+                    exceptionTypes.add((TypeElement) type);
+                }
+            }
+        }
+        for (TypeElement exceptionType : exceptionTypes) {
+            if (isSupported(exceptionType)) {
+                generateMetadata(exceptionType);
+            }
+        }
+        // The annotations are not claimed, so other processors can also process them
+        return false;
+    }
+
+    private boolean isThrowable(TypeElement type) {
+        TypeElement throwable = processingEnv.getElementUtils().getTypeElement(Throwable.class.getName());
+        return processingEnv.getTypeUtils().isSubtype(type.asType(), throwable.asType());
+    }
+
+    private boolean isSupported(TypeElement exceptionType) {
+        if (exceptionType.getModifiers().contains(Modifier.ABSTRACT)) {
+            return false;
+        }
+        for (Element element = exceptionType; element instanceof TypeElement; element = element.getEnclosingElement()) {
+            TypeElement type = (TypeElement) element;
+            if (type.getModifiers().contains(Modifier.PRIVATE)
+                    || type.getNestingKind() == NestingKind.LOCAL
+                    || type.getNestingKind() == NestingKind.ANONYMOUS) {
+                return false;
+            }
+        }
+        if (hasMetaAnnotation(exceptionType)) {
+            note(exceptionType, "Annotations are used as meta-annotation, the metadata is determined at runtime");
+            return false;
+        }
+        return true;
+    }
+
+    private void generateMetadata(TypeElement exceptionType) {
+        String packageName = processingEnv.getElementUtils().getPackageOf(exceptionType).getQualifiedName().toString();
+        String binaryName = processingEnv.getElementUtils().getBinaryName(exceptionType).toString();
+        String simpleName = (packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1)).replace('$', '_') + METADATA_SUFFIX;
+        String qualifiedName = packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+        String exceptionTypeName = exceptionType.getQualifiedName().toString();
+
+        List<PropertySource> properties = new ArrayList<>();
+        boolean propertiesAccessible = collectMethodProperties(exceptionType, properties)
+                & collectFieldProperties(exceptionType, packageName, properties);
+        if (!propertiesAccessible) {
+            note(exceptionType, "Not all @ResponseErrorProperty members are accessible, the properties are read via reflection");
+        }
+
+        try (PrintWriter writer = new PrintWriter(processingEnv.getFiler().createSourceFile(qualifiedName, exceptionType).openWriter())) {
+            if (!packageName.isEmpty()) {
+                writer.println("package " + packageName + ";");
+                writer.println();
+            }
+            writer.println("/**");
+            writer.println(" * Generated by " + ExceptionMetadataProcessor.class.getName() + ".");
+            writer.println(" */");
+            writer.println("public final class " + simpleName + " implements io.github.wimdeblauwe.errorhandlingspringbootstarter.ExceptionMetadata {");
+            writer.println("    @Override");
+            writer.println("    public Class<? extends Throwable> getExceptionClass() {");
+            writer.println("        return " + exceptionTypeName + ".class;");
+            writer.println("    }");
+            writer.println();
+            writer.println("    @Override");
+            writer.println("    public org.springframework.http.HttpStatus getResponseStatus() {");
+            writer.println("        return " + getResponseStatus(exceptionType) + ";");
+            writer.println("    }");
+            writer.println();
+            writer.println("    @Override");
+            writer.println("    public String getResponseErrorCode() {");
+            writer.println("        return " + getResponseErrorCode(exceptionType) + ";");
+            writer.println("    }");
+            writer.println();
+            writer.println("    @Override");
+            writer.println("    public boolean isResponseErrorPropertiesAccessible() {");
+            writer.println("        return " + propertiesAccessible + ";");
+            writer.println("    }");
+            writer.println();
+            writer.println("    @Override");
+            writer.println("    public boolean hasResponseErrorProperties() {");
+            writer.println("        return " + !properties.isEmpty() + ";");
+            writer.println("    }");
+            writer.println();
+            writer.println("    @Override");
+            writer.println("    public void addResponseErrorProperties(Throwable throwable,");
+            writer.println("                                           io.github.wimdeblauwe.errorhandlingspringbootstarter.ApiErrorResponse response) {");
+            if (propertiesAccessible && !properties.isEmpty()) {
+                writer.println("        " + exceptionTypeName + " exception = (" + exceptionTypeName + ") throwable;");
+                writer.println("        Object value;");
+                for (PropertySource property : properties) {
+                    writer.println("        value = " + property.expression + ";");
+                    if (property.includeIfNull) {
+                        writer.println("        response.addErrorProperty(" + literal(property.name) + ", value);");
+                    } else {
+                        writer.println("        if (value != null) {");
+                        writer.println("            response.addErrorProperty(" + literal(property.name) + ", value);");
+                        writer.println("        }");
+                    }
+                }
+            }
+            writer.println("    }");
+            writer.println("}");
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Unable to generate " + qualifiedName + ": " + e.getMessage(), exceptionType);
+            return;
+        }
+        generatedClassNames.add(qualifiedName);
+    }
+
+    /**
+     * The public methods, including the inherited ones, like {@link Class#getMethods()}.
+     */
+    private boolean collectMethodProperties(TypeElement exceptionType,
+                                            List<PropertySource> properties) {
+        boolean accessible = true;
+        for (ExecutableElement method : ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(exceptionType))) {
+            AnnotationMirror annotation = findAnnotation(method, RESPONSE_ERROR_PROPERTY);
+            if (annotation == null
+                    || !method.getModifiers().contains(Modifier.PUBLIC)
+                    || method.getReturnType().getKind() == TypeKind.VOID
+                    || !method.getParameters().isEmpty()) {
+                continue;
+            }
+            if (throwsCheckedException(method)) {
+                accessible = false;
+                continue;
+            }
+            boolean isStatic = method.getModifiers().contains(Modifier.STATIC);
+            String methodName = method.getSimpleName().toString();
+            String expression = (isStatic ? exceptionType.getQualifiedName() : "exception") + "." + methodName + "()";
+            String name = getStringValue(annotation, "value");
+            if (name == null || name.isEmpty()) {
+                name = isStatic ? methodName : getBeanPropertyName(method);
+            }
+            properties.add(new PropertySource(name, isIncludeIfNull(annotation), expression));
+        }
+        return accessible;
+    }
+
+    /**
+     * The declared fields of the class and its superclasses, with those of the superclasses first.
+     */
+    private boolean collectFieldProperties(TypeElement exceptionType,
+                                           String packageName,
+                                           List<PropertySource> properties) {
+        Deque<TypeElement> hierarchy = new ArrayDeque<>();
+        for (TypeElement type = exceptionType; type != null && !type.getQualifiedName().contentEquals(Object.class.getName()); type = getSuperclass(type)) {
+            hierarchy.push(type);
+        }
+
+        boolean accessible = true;
+        for (TypeElement type : hierarchy) {
+            for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+                AnnotationMirror annotation = findAnnotation(field, RESPONSE_ERROR_PROPERTY);
+                if (annotation == null) {
+                    continue;
+                }
+                if (!isAccessible(field, packageName) || !isAccessible(type, packageName)) {
+                    accessible = false;
+                    continue;
+                }
+                String typeName = type.getQualifiedName().toString();
+                String expression = field.getModifiers().contains(Modifier.STATIC)
+                        ? typeName + "." + field.getSimpleName()
+                        : "((" + typeName + ") exception)." + field.getSimpleName();
+                String name = getStringValue(annotation, "value");
+                if (name == null || name.isEmpty()) {
+                    name = field.getSimpleName().toString();
+                }
+                properties.add(new PropertySource(name, isIncludeIfNull(annotation), expression));
+            }
+        }
+        return accessible;
+    }
+
+    private TypeElement getSuperclass(TypeElement type) {
+        TypeMirror superclass = type.getSuperclass();
+        return superclass.getKind() == TypeKind.DECLARED ? (TypeElement) ((DeclaredType) superclass).asElement() : null;
+    }
+
+    private boolean isAccessible(Element element,
+                                 String packageName) {
+        Set<Modifier> modifiers = element.getModifiers();
+        if (modifiers.contains(Modifier.PRIVATE)) {
+            return false;
+        }
+        return modifiers.contains(Modifier.PUBLIC)
+                || processingEnv.getElementUtils().getPackageOf(element).getQualifiedName().contentEquals(packageName);
+    }
+
+    private boolean throwsCheckedException(ExecutableElement method) {
+        TypeMirror runtimeException = processingEnv.getElementUtils().getTypeElement(RuntimeException.class.getName()).asType();
+        TypeMirror error = processingEnv.getElementUtils().getTypeElement(Error.class.getName()).asType();
+        for (TypeMirror thrownType : method.getThrownTypes()) {
+            if (!processingEnv.getTypeUtils().isSubtype(thrownType, runtimeException)
+                    && !processingEnv.getTypeUtils().isSubtype(thrownType, error)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The name that {@link Introspector} uses for a getter method, or the method name if it is not a getter.
+     */
+    private static String getBeanPropertyName(ExecutableElement method) {
+        String methodName = method.getSimpleName().toString();
+        if (methodName.startsWith("get") && methodName.length() > 3) {
+            return Introspector.decapitalize(methodName.substring(3));
+        }
+        if (methodName.startsWith("is") && methodName.length() > 2 && method.getReturnType().getKind() == TypeKind.BOOLEAN) {
+            return Introspector.decapitalize(methodName.substring(2));
+        }
+        return methodName;
+    }
+
+    private String getResponseStatus(TypeElement exceptionType) {
+        AnnotationMirror annotation = findAnnotation(exceptionType, RESPONSE_STATUS);
+        if (annotation == null) {
+            return "null";
+        }
+        Object value = getValue(annotation, "value");
+        if (value == null) {
+            value = getValue(annotation, "code");
+        }
+        String status = value instanceof VariableElement ? ((VariableElement) value).getSimpleName().toString() : "INTERNAL_SERVER_ERROR";
+        return "org.springframework.http.HttpStatus." + status;
+    }
+
+    private String getResponseErrorCode(TypeElement exceptionType) {
+        AnnotationMirror annotation = findAnnotation(exceptionType, RESPONSE_ERROR_CODE);
+        return annotation != null ? literal(getStringValue(annotation, "value")) : "null";
+    }
+
+    private boolean hasMetaAnnotation(TypeElement exceptionType) {
+        List<Element> elements = new ArrayList<>();
+        elements.add(exceptionType);
+        for (TypeElement type = exceptionType; type != null; type = getSuperclass(type)) {
+            elements.addAll(type.getEnclosedElements());
+        }
+        for (Element element : elements) {
+            for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+                for (AnnotationMirror metaAnnotation : annotation.getAnnotationType().asElement().getAnnotationMirrors()) {
+                    if (ANNOTATION_TYPES.contains(getTypeName(metaAnnotation))) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    private static AnnotationMirror findAnnotation(Element element,
+                                                   String annotationType) {
+        for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+            if (getTypeName(annotation).equals(annotationType)) {
+                return annotation;
+            }
+        }
+        return null;
+    }
+
+    private static String getTypeName(AnnotationMirror annotation) {
+        return ((TypeElement) annotation.getAnnotationType().asElement()).getQualifiedName().toString();
+    }
+
+    /**
+     * @return the explicitly set value of the annotation attribute, or <code>null</code> if the default is used
+     */
+    private static Object getValue(AnnotationMirror annotation,
+                                   String attributeName) {
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : annotation.getElementValues().entrySet()) {
+            if (entry.getKey().getSimpleName().contentEquals(attributeName)) {
+                return entry.getValue().getValue();
+            }
+        }
+        return null;
+    }
+
+    private static String getStringValue(AnnotationMirror annotation,
+                                         String attributeName) {
+        Object value = getValue(annotation, attributeName);
+        return value instanceof String ? (String) value : null;
+    }
+
+    private static boolean isIncludeIfNull(AnnotationMirror annotation) {
+        return Boolean.TRUE.equals(getValue(annotation, "includeIfNull"));
+    }
+
+    static String literal(String value) {
+        if (value == null) {
+            return "null";
+        }
+        StringBuilder result = new StringBuilder("\"");
+        for (char c : value.toCharArray()) {
+            switch (c) {
+                case '"':
+                    result.append("\\\"");
+                    break;
+                case '\\':
+                    result.append("\\\\");
+                    break;
+                case '\n':
+                    result.append("\\n");
+                    break;
+                case '\r':
+                    result.append("\\r");
+                    break;
+                case '\t':
+                    result.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20 || c > 0x7e) {
+                        result.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        result.append(c);
+                    }
+            }
+        }
+        return result.append('"').toString();
+    }
+
+    /**
+     * Entries of an earlier (incremental) compilation are kept, the runtime skips entries of classes that no longer exist.
+     */
+    private void writeServiceFile() {
+        if (generatedClassNames.isEmpty()) {
+            return;
+        }
+        Set<String> classNames = new TreeSet<>(generatedClassNames);
+        try {
+            FileObject existingFile = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", SERVICE_FILE);
+            try (BufferedReader reader = new BufferedReader(reader(existingFile))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (!line.trim().isEmpty()) {
+                        classNames.add(line.trim());
+                    }
+                }
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            // There is no existing file
+        }
+
+        try {
+            FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", SERVICE_FILE);
+            try (Writer writer = new OutputStreamWriter(file.openOutputStream(), StandardCharsets.UTF_8)) {
+                for (String className : classNames) {
+                    writer.write(className);
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Unable to write " + SERVICE_FILE + ": " + e.getMessage());
+        }
+    }
+
+    private static Reader reader(FileObject file) throws IOException {
+        return new InputStreamReader(file.openInputStream(), StandardCharsets.UTF_8);
+    }
+
+    private void note(Element element,
+                      String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE, message, element);
+    }
+
+    private static final class PropertySource {
+        private final String name;
+        private final boolean includeIfNull;
+        private final String expression;
+
+        private PropertySource(String name,
+                               boolean includeIfNull,
+                               String expression) {
+            this.name = name;
+            this.includeIfNull = includeIfNull;
+            this.expression = expression;
+        }
+    }
+}
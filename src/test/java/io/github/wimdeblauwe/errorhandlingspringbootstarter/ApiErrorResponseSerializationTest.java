@@ -1,6 +1,8 @@
 package io.github.wimdeblauwe.errorhandlingspringbootstarter;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
@@ -12,8 +14,15 @@ import org.springframework.http.HttpStatus;
 import org.springframework.test.annotation.DirtiesContext;
 
 import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
 
 import static net.javacrumbs.jsonunit.assertj.JsonAssertions.assertThatJson;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 @JsonTest
 @Import(ErrorHandlingProperties.class)
@@ -81,6 +90,44 @@ class ApiErrorResponseSerializationTest {
         );
     }
 
+    @Test
+    void testSerializationWithLazyFieldAndGlobalErrors() throws IOException {
+        ApiErrorResponse response = new ApiErrorResponse(HttpStatus.BAD_REQUEST, "TEST_CODE", "Test message");
+        response.addFieldError(new ApiFieldError("FIRST_CODE", "first", "First message", 1));
+        response.addFieldErrors(Collections.singletonList(new ApiFieldError("SECOND_CODE", "second", "Second message", 2)));
+        response.addGlobalErrors(Collections.singletonList(new ApiGlobalError("GLOBAL_ERROR_CODE", "Test Global Message")));
+        String json = objectMapper.writeValueAsString(response);
+        assertThatJson(json).and(
+                jsonAssert -> jsonAssert.node("fieldErrors").isArray().hasSize(2),
+                jsonAssert -> jsonAssert.node("fieldErrors[0].code").isEqualTo("FIRST_CODE"),
+                jsonAssert -> jsonAssert.node("fieldErrors[1].code").isEqualTo("SECOND_CODE"),
+                jsonAssert -> jsonAssert.node("fieldErrors[1].rejectedValue").isEqualTo(2),
+                jsonAssert -> jsonAssert.node("globalErrors[0].code").isEqualTo("GLOBAL_ERROR_CODE")
+        );
+    }
+
+    @Test
+    void testGetFieldErrorsDoesNotChangeLazyFieldErrors() throws IOException {
+        ApiErrorResponse response = new ApiErrorResponse(HttpStatus.BAD_REQUEST, "TEST_CODE", "Test message");
+        response.addFieldError(new ApiFieldError("FIRST_CODE", "first", "First message", 1));
+        response.addFieldErrors(Collections.singletonList(new ApiFieldError("SECOND_CODE", "second", "Second message", 2)));
+        assertThat(response.getFieldErrors()).extracting(ApiFieldError::getCode).containsExactly("FIRST_CODE", "SECOND_CODE");
+        assertThat(response.getFieldErrors()).extracting(ApiFieldError::getCode).containsExactly("FIRST_CODE", "SECOND_CODE");
+        assertThatThrownBy(() -> response.getFieldErrors().add(new ApiFieldError("THIRD_CODE", "third", "Third message", 3)))
+                .isInstanceOf(UnsupportedOperationException.class);
+
+        String json = objectMapper.writeValueAsString(response);
+        assertThatJson(json).node("fieldErrors").isArray().hasSize(2);
+    }
+
+    @Test
+    void testSerializationWithEmptyLazyFieldErrors() throws IOException {
+        ApiErrorResponse response = new ApiErrorResponse(HttpStatus.BAD_REQUEST, "TEST_CODE", "Test message");
+        response.addFieldErrors(Collections.emptyList());
+        String json = objectMapper.writeValueAsString(response);
+        assertThatJson(json).node("fieldErrors").isAbsent();
+    }
+
     @Test
     void testSerializationWithErrorProperty() throws IOException {
         ApiErrorResponse response = new ApiErrorResponse(HttpStatus.BAD_GATEWAY, "TEST_CODE", "Test message");
@@ -96,6 +143,42 @@ class ApiErrorResponseSerializationTest {
         );
     }
 
+    @Test
+    void testSerializationWithErrorPropertiesOfDifferentTypes() throws IOException {
+        ApiErrorResponse response = new ApiErrorResponse(HttpStatus.BAD_GATEWAY, "TEST_CODE", "Test message");
+        response.addErrorProperty("booleanProperty", true);
+        response.addErrorProperty("longProperty", 123456789012L);
+        response.addErrorProperty("decimalProperty", new BigDecimal("12.50"));
+        response.addErrorProperty("uuidProperty", UUID.fromString("8c7fb13c-0924-47d4-821a-36f73558c898"));
+        response.addErrorProperty("enumProperty", HttpStatus.NOT_FOUND);
+        response.addErrorProperty("listProperty", Arrays.asList("a", "b"));
+        response.addFieldError(new ApiFieldError("FIELD_ERROR_CODE", "testField", "Test Field Message", 42));
+        String json = objectMapper.writeValueAsString(response);
+        assertThatJson(json).and(
+                jsonAssert -> jsonAssert.node("booleanProperty").isEqualTo(true),
+                jsonAssert -> jsonAssert.node("longProperty").isEqualTo(123456789012L),
+                jsonAssert -> jsonAssert.node("decimalProperty").isEqualTo(12.5),
+                jsonAssert -> jsonAssert.node("uuidProperty").isEqualTo("8c7fb13c-0924-47d4-821a-36f73558c898"),
+                jsonAssert -> jsonAssert.node("enumProperty").isEqualTo("NOT_FOUND"),
+                jsonAssert -> jsonAssert.node("listProperty").isArray().containsExactly("a", "b"),
+                jsonAssert -> jsonAssert.node("fieldErrors[0].rejectedValue").isEqualTo(42)
+        );
+    }
+
+    @Test
+    void testSerializationUsesConfiguredSerializerForNumbers() throws IOException {
+        ObjectMapper mapper = objectMapper.copy()
+                                          .registerModule(new SimpleModule().addSerializer(Long.class, ToStringSerializer.instance));
+        ApiErrorResponse response = new ApiErrorResponse(HttpStatus.BAD_GATEWAY, "TEST_CODE", "Test message");
+        response.addErrorProperty("longProperty", 123L);
+        response.addFieldError(new ApiFieldError("FIELD_ERROR_CODE", "testField", "Test Field Message", 42L));
+        String json = mapper.writeValueAsString(response);
+        assertThatJson(json).and(
+                jsonAssert -> jsonAssert.node("longProperty").isString().isEqualTo("123"),
+                jsonAssert -> jsonAssert.node("fieldErrors[0].rejectedValue").isString().isEqualTo("42")
+        );
+    }
+
     @Test
     void testSerializationWithErrorPropertyThatIsNull() throws IOException {
         ApiErrorResponse response = new ApiErrorResponse(HttpStatus.BAD_GATEWAY, "TEST_CODE", "Test message");
@@ -121,6 +204,27 @@ class ApiErrorResponseSerializationTest {
         );
     }
 
+    @Test
+    void testSerializationWithTraceId() throws IOException {
+        ApiErrorResponse response = new ApiErrorResponse(HttpStatus.BAD_REQUEST, "TEST_CODE", "Test message");
+        response.setTraceId("4bf92f3577b34da6");
+
+        String json = objectMapper.writeValueAsString(response);
+        assertThatJson(json).and(
+                jsonAssert -> jsonAssert.node("traceId").isEqualTo("4bf92f3577b34da6")
+        );
+    }
+
+    @Test
+    void testSerializationWithoutTraceId() throws IOException {
+        ApiErrorResponse response = new ApiErrorResponse(HttpStatus.BAD_REQUEST, "TEST_CODE", "Test message");
+
+        String json = objectMapper.writeValueAsString(response);
+        assertThatJson(json).and(
+                jsonAssert -> jsonAssert.node("traceId").isAbsent()
+        );
+    }
+
     @Test
     void testHttpStatusInJsonResponseDisabledByDefault() throws IOException {
         ApiErrorResponse response = new ApiErrorResponse(HttpStatus.BAD_REQUEST, "TEST_CODE", "Test message");
@@ -139,6 +243,7 @@ class ApiErrorResponseSerializationTest {
             properties.getJsonFieldNames().setCode("errorCode");
             properties.getJsonFieldNames().setFieldErrors("fieldFailures");
             properties.getJsonFieldNames().setGlobalErrors("globalFailures");
+            properties.getJsonFieldNames().setTraceId("correlationId");
         }
 
         @AfterEach
@@ -147,6 +252,7 @@ class ApiErrorResponseSerializationTest {
             properties.getJsonFieldNames().setCode("code");
             properties.getJsonFieldNames().setFieldErrors("fieldErrors");
             properties.getJsonFieldNames().setGlobalErrors("globalErrors");
+            properties.getJsonFieldNames().setTraceId("traceId");
         }
 
         @Test
@@ -190,5 +296,86 @@ class ApiErrorResponseSerializationTest {
             );
         }
 
+        @Test
+        void testSerializationWithTraceId() throws IOException {
+            ApiErrorResponse response = new ApiErrorResponse(HttpStatus.BAD_GATEWAY, "TEST_CODE", "Test message");
+            response.setTraceId("4bf92f3577b34da6");
+            String json = objectMapper.writeValueAsString(response);
+            assertThatJson(json).and(
+                    jsonAssert -> jsonAssert.node("correlationId").isEqualTo("4bf92f3577b34da6"),
+                    jsonAssert -> jsonAssert.node("traceId").isAbsent()
+            );
+        }
+
+    }
+
+    @Nested
+    class ValueRenderingTests {
+        @BeforeEach
+        void enableValueRendering() {
+            ErrorHandlingProperties.ValueRendering valueRendering = new ErrorHandlingProperties.ValueRendering();
+            valueRendering.setEnabled(true);
+            valueRendering.setMaxStringLength(5);
+            valueRendering.setMaxCollectionElements(2);
+            valueRendering.setMaxDepth(1);
+            properties.setValueRendering(valueRendering);
+        }
+
+        @AfterEach
+        void resetValueRendering() {
+            properties.setValueRendering(new ErrorHandlingProperties.ValueRendering());
+        }
+
+        @Test
+        void stringsAndCollectionsAreTruncated() throws IOException {
+            ApiErrorResponse response = new ApiErrorResponse(HttpStatus.BAD_REQUEST, "TEST_CODE", "Test message");
+            response.addFieldError(new ApiFieldError("FIELD_ERROR_CODE", "testField", "Test Field Message", "abcdefgh"));
+            response.addErrorProperty("values", Arrays.asList("a", "b", "c"));
+            response.addErrorProperty("nested", Collections.singletonList(Collections.singletonList("a")));
+            String json = objectMapper.writeValueAsString(response);
+            assertThatJson(json).and(
+                    jsonAssert -> jsonAssert.node("fieldErrors[0].rejectedValue").isEqualTo("abcde..."),
+                    jsonAssert -> jsonAssert.node("values").isArray().containsExactly("a", "b"),
+                    jsonAssert -> jsonAssert.node("nested").isArray().containsExactly("...")
+            );
+        }
+
+        @Test
+        void binaryDataIsSummarized() throws IOException {
+            ApiErrorResponse response = new ApiErrorResponse(HttpStatus.BAD_REQUEST, "TEST_CODE", "Test message");
+            response.addFieldError(new ApiFieldError("FIELD_ERROR_CODE", "file", "Test Field Message", new byte[2048]));
+            String json = objectMapper.writeValueAsString(response);
+            assertThatJson(json).node("fieldErrors[0].rejectedValue").isEqualTo("<binary data: 2048 bytes>");
+        }
+
+        @Test
+        void beanPropertiesAreTruncated() throws IOException {
+            ApiErrorResponse response = new ApiErrorResponse(HttpStatus.BAD_REQUEST, "TEST_CODE", "Test message");
+            response.addFieldError(new ApiFieldError("FIELD_ERROR_CODE", "address", "Test Field Message", new Address("abcdefgh", Arrays.asList("a", "b"))));
+            String json = objectMapper.writeValueAsString(response);
+            assertThatJson(json).and(
+                    jsonAssert -> jsonAssert.node("fieldErrors[0].rejectedValue.street").isEqualTo("abcde..."),
+                    jsonAssert -> jsonAssert.node("fieldErrors[0].rejectedValue.lines").isEqualTo("...")
+            );
+        }
+    }
+
+    static class Address {
+        private final String street;
+        private final List<String> lines;
+
+        Address(String street,
+                List<String> lines) {
+            this.street = street;
+            this.lines = lines;
+        }
+
+        public String getStreet() {
+            return street;
+        }
+
+        public List<String> getLines() {
+            return lines;
+        }
     }
 }
@@ -0,0 +1,58 @@
+package io.github.wimdeblauwe.errorhandlingspringbootstarter;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ApiExceptionTest {
+
+    @Test
+    void stackTraceIsNotCapturedByDefault() {
+        UserNotFoundException exception = new UserNotFoundException("Could not find user");
+
+        assertThat(exception.getStackTrace()).isEmpty();
+        assertThat(exception.hasStackTrace()).isFalse();
+    }
+
+    @Test
+    void stackTraceCanBeCaptured() {
+        UserNotFoundException exception = new UserNotFoundException("Could not find user", null, true);
+
+        assertThat(exception.getStackTrace()).isNotEmpty();
+        assertThat(exception.hasStackTrace()).isTrue();
+    }
+
+    @Test
+    void stackTraceOfCauseIsConsidered() {
+        assertThat(new UserNotFoundException("Could not find user", new IllegalStateException(), false).hasStackTrace()).isTrue();
+        assertThat(new UserNotFoundException("Could not find user", new UserNotFoundException("cause"), false).hasStackTrace()).isFalse();
+    }
+
+    @Test
+    void annotationsAreUsedByFallbackHandler() {
+        ErrorHandlingProperties properties = new ErrorHandlingProperties();
+        DefaultFallbackApiExceptionHandler handler = new DefaultFallbackApiExceptionHandler(properties);
+
+        ApiErrorResponse response = handler.handle(new UserNotFoundException("Could not find user"));
+
+        assertThat(response.getHttpStatus()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(response.getCode()).isEqualTo("USER_NOT_FOUND");
+        assertThat(response.getMessage()).isEqualTo("Could not find user");
+    }
+
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    @ResponseErrorCode("USER_NOT_FOUND")
+    static class UserNotFoundException extends ApiException {
+        UserNotFoundException(String message) {
+            super(message);
+        }
+
+        UserNotFoundException(String message,
+                              Throwable cause,
+                              boolean writableStackTrace) {
+            super(message, cause, writableStackTrace);
+        }
+    }
+}
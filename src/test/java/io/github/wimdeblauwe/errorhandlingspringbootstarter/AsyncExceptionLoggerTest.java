@@ -0,0 +1,105 @@
+package io.github.wimdeblauwe.errorhandlingspringbootstarter;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.MDC;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+class AsyncExceptionLoggerTest {
+
+    @Test
+    void exceptionIsLoggedOnLoggingThread() {
+        Logger logger = mock(Logger.class);
+        AtomicReference<String> threadName = new AtomicReference<>();
+        doAnswer(invocation -> {
+            threadName.set(Thread.currentThread().getName());
+            return null;
+        }).when(logger).error(anyString());
+
+        try (AsyncExceptionLogger asyncExceptionLogger = new AsyncExceptionLogger(10, logger)) {
+            asyncExceptionLogger.log(new IllegalStateException("Something went wrong"), "Something went wrong", false);
+
+            verify(logger, timeout(1000)).error("Something went wrong");
+            assertThat(threadName.get()).isEqualTo("error-handling-logger");
+        }
+    }
+
+    @Test
+    void exceptionIsLoggedWithStacktrace() {
+        Logger logger = mock(Logger.class);
+        IllegalStateException exception = new IllegalStateException("Something went wrong");
+
+        try (AsyncExceptionLogger asyncExceptionLogger = new AsyncExceptionLogger(10, logger)) {
+            asyncExceptionLogger.log(exception, exception.getMessage(), true);
+
+            verify(logger, timeout(1000)).error("Something went wrong", exception);
+        }
+    }
+
+    @Test
+    void mdcOfRequestThreadIsUsed() {
+        Logger logger = mock(Logger.class);
+        AtomicReference<String> requestId = new AtomicReference<>();
+        doAnswer(invocation -> {
+            requestId.set(MDC.get("requestId"));
+            return null;
+        }).when(logger).error(anyString());
+
+        try (AsyncExceptionLogger asyncExceptionLogger = new AsyncExceptionLogger(10, logger)) {
+            MDC.put("requestId", "abc-123");
+            try {
+                asyncExceptionLogger.log(new IllegalStateException("Something went wrong"), "Something went wrong", false);
+            } finally {
+                MDC.remove("requestId");
+            }
+
+            verify(logger, timeout(1000)).error("Something went wrong");
+            assertThat(requestId.get()).isEqualTo("abc-123");
+        }
+    }
+
+    @Test
+    void recordsAreDroppedWhenQueueIsFull() throws InterruptedException {
+        Logger logger = mock(Logger.class);
+        CountDownLatch loggingStarted = new CountDownLatch(1);
+        CountDownLatch releaseLogging = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            loggingStarted.countDown();
+            releaseLogging.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(logger).error(anyString());
+
+        try (AsyncExceptionLogger asyncExceptionLogger = new AsyncExceptionLogger(1, logger)) {
+            asyncExceptionLogger.log(new IllegalStateException("first"), "first", false);
+            assertThat(loggingStarted.await(1, TimeUnit.SECONDS)).isTrue();
+
+            asyncExceptionLogger.log(new IllegalStateException("second"), "second", false);
+            asyncExceptionLogger.log(new IllegalStateException("third"), "third", false);
+            asyncExceptionLogger.log(new IllegalStateException("fourth"), "fourth", false);
+
+            assertThat(asyncExceptionLogger.getDroppedCount()).isEqualTo(2);
+            releaseLogging.countDown();
+            verify(logger, timeout(1000)).error("second");
+        }
+    }
+
+    @Test
+    void interruptStatusIsKeptOnClose() {
+        AsyncExceptionLogger asyncExceptionLogger = new AsyncExceptionLogger(10, mock(Logger.class));
+
+        Thread.currentThread().interrupt();
+        asyncExceptionLogger.close();
+
+        assertThat(Thread.interrupted()).isTrue();
+    }
+}
@@ -11,6 +11,7 @@ import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.server.MethodNotAllowedException;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -19,6 +20,49 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 class DefaultFallbackApiExceptionHandlerTest {
 
+    @Test
+    void generatedMetadataIsUsedInsteadOfAnnotations() {
+        ErrorHandlingProperties properties = new ErrorHandlingProperties();
+        DefaultFallbackApiExceptionHandler handler = new DefaultFallbackApiExceptionHandler(properties, Collections.singletonList(new ExceptionMetadata() {
+            @Override
+            public Class<? extends Throwable> getExceptionClass() {
+                return ExceptionWithResponseErrorPropertyOnMethod.class;
+            }
+
+            @Override
+            public HttpStatus getResponseStatus() {
+                return HttpStatus.CONFLICT;
+            }
+
+            @Override
+            public String getResponseErrorCode() {
+                return "FROM_METADATA";
+            }
+
+            @Override
+            public boolean isResponseErrorPropertiesAccessible() {
+                return true;
+            }
+
+            @Override
+            public boolean hasResponseErrorProperties() {
+                return true;
+            }
+
+            @Override
+            public void addResponseErrorProperties(Throwable exception,
+                                                   ApiErrorResponse response) {
+                response.addErrorProperty("fromMetadata", ((ExceptionWithResponseErrorPropertyOnMethod) exception).getMyProperty());
+            }
+        }));
+
+        ApiErrorResponse response = handler.handle(new ExceptionWithResponseErrorPropertyOnMethod("value"));
+
+        assertThat(response.getHttpStatus()).isEqualTo(HttpStatus.CONFLICT);
+        assertThat(response.getCode()).isEqualTo("FROM_METADATA");
+        assertThat(response.getProperties()).containsOnlyKeys("fromMetadata");
+    }
+
     @Nested
     class HttpStatusTests {
         @Test
@@ -47,6 +91,24 @@ class DefaultFallbackApiExceptionHandlerTest {
             assertThat(response.getHttpStatus()).isEqualTo(HttpStatus.BAD_REQUEST);
         }
 
+        @Test
+        void overrideViaPropertiesAfterFirstUse() {
+            ErrorHandlingProperties properties = new ErrorHandlingProperties();
+            DefaultFallbackApiExceptionHandler handler = new DefaultFallbackApiExceptionHandler(properties);
+            assertThat(handler.handle(new MyEntityNotFoundException()).getHttpStatus()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
+
+            properties.getHttpStatuses().put(MyEntityNotFoundException.class.getName(), HttpStatus.NOT_FOUND);
+            assertThat(handler.handle(new MyEntityNotFoundException()).getHttpStatus()).isEqualTo(HttpStatus.NOT_FOUND);
+        }
+
+        @Test
+        void httpStatusOfSuperclassIsUsed() {
+            ErrorHandlingProperties properties = new ErrorHandlingProperties();
+            properties.getHttpStatuses().put(MyEntityNotFoundException.class.getName(), HttpStatus.NOT_FOUND);
+            DefaultFallbackApiExceptionHandler handler = new DefaultFallbackApiExceptionHandler(properties);
+            assertThat(handler.handle(new MyUserNotFoundException()).getHttpStatus()).isEqualTo(HttpStatus.NOT_FOUND);
+        }
+
     }
 
     @Nested
@@ -87,6 +149,29 @@ class DefaultFallbackApiExceptionHandlerTest {
             ApiErrorResponse response = handler.handle(new MyEntityNotFoundException());
             assertThat(response.getCode()).isEqualTo("MY_CUSTOM_ERROR_CODE");
         }
+
+        @Test
+        void codeUsesChangedPropertiesAfterFirstUse() {
+            ErrorHandlingProperties properties = new ErrorHandlingProperties();
+            DefaultFallbackApiExceptionHandler handler = new DefaultFallbackApiExceptionHandler(properties);
+            assertThat(handler.handle(new MyEntityNotFoundException()).getCode()).isEqualTo("MY_ENTITY_NOT_FOUND");
+
+            properties.setDefaultErrorCodeStrategy(ErrorHandlingProperties.DefaultErrorCodeStrategy.FULL_QUALIFIED_NAME);
+            assertThat(handler.handle(new MyEntityNotFoundException()).getCode()).isEqualTo(MyEntityNotFoundException.class.getName());
+
+            properties.getCodes().put(MyEntityNotFoundException.class.getName(), "MY_CUSTOM_ERROR_CODE");
+            assertThat(handler.handle(new MyEntityNotFoundException()).getCode()).isEqualTo("MY_CUSTOM_ERROR_CODE");
+        }
+
+        @Test
+        void codeOfNearestSuperclassIsUsed() {
+            ErrorHandlingProperties properties = new ErrorHandlingProperties();
+            properties.getCodes().put(RuntimeException.class.getName(), "RUNTIME");
+            properties.getCodes().put(MyEntityNotFoundException.class.getName(), "ENTITY_NOT_FOUND");
+            DefaultFallbackApiExceptionHandler handler = new DefaultFallbackApiExceptionHandler(properties);
+            assertThat(handler.handle(new MyUserNotFoundException()).getCode()).isEqualTo("ENTITY_NOT_FOUND");
+            assertThat(handler.handle(new ExceptionWithBadRequestStatus()).getCode()).isEqualTo("RUNTIME");
+        }
     }
 
     @Test
@@ -177,6 +262,25 @@ class DefaultFallbackApiExceptionHandlerTest {
         assertThat(response.getProperties()).hasEntrySatisfying("myProperty", new HamcrestCondition<>(Matchers.nullValue()));
     }
 
+    @Test
+    void testResponseErrorPropertyOnInheritedField() {
+        ErrorHandlingProperties properties = new ErrorHandlingProperties();
+        DefaultFallbackApiExceptionHandler handler = new DefaultFallbackApiExceptionHandler(properties);
+        ApiErrorResponse response = handler.handle(new ExceptionWithInheritedResponseErrorPropertyOnField("myValue", "myOtherValue"));
+        assertThat(response.getProperties()).hasEntrySatisfying("myProperty", new HamcrestCondition<>(Matchers.is("myValue")));
+        assertThat(response.getProperties()).hasEntrySatisfying("myOtherProperty", new HamcrestCondition<>(Matchers.is("myOtherValue")));
+    }
+
+    @Test
+    void testResponseErrorPropertyIsExtractedForEachInstance() {
+        ErrorHandlingProperties properties = new ErrorHandlingProperties();
+        DefaultFallbackApiExceptionHandler handler = new DefaultFallbackApiExceptionHandler(properties);
+        ApiErrorResponse response = handler.handle(new ExceptionWithResponseErrorPropertyOnMethod("firstValue"));
+        assertThat(response.getProperties()).hasEntrySatisfying("myProperty", new HamcrestCondition<>(Matchers.is("firstValue")));
+        response = handler.handle(new ExceptionWithResponseErrorPropertyOnMethod("secondValue"));
+        assertThat(response.getProperties()).hasEntrySatisfying("myProperty", new HamcrestCondition<>(Matchers.is("secondValue")));
+    }
+
     @Test
     void testResponseStatusForResponseStatusException() {
         ErrorHandlingProperties properties = new ErrorHandlingProperties();
@@ -201,6 +305,9 @@ class DefaultFallbackApiExceptionHandlerTest {
 
     }
 
+    static class MyUserNotFoundException extends MyEntityNotFoundException {
+    }
+
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     static class ExceptionWithBadRequestStatus extends RuntimeException {
 
@@ -242,6 +349,16 @@ class DefaultFallbackApiExceptionHandlerTest {
         }
     }
 
+    static class ExceptionWithInheritedResponseErrorPropertyOnField extends ExceptionWithResponseErrorPropertyOnField {
+        @ResponseErrorProperty
+        private final String myOtherProperty;
+
+        public ExceptionWithInheritedResponseErrorPropertyOnField(String myProperty, String myOtherProperty) {
+            super(myProperty);
+            this.myOtherProperty = myOtherProperty;
+        }
+    }
+
     static class ExceptionWithResponseErrorPropertyOnMethod extends RuntimeException {
         private final String myProperty;
 
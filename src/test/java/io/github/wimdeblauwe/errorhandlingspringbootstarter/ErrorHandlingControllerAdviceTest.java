@@ -0,0 +1,337 @@
+package io.github.wimdeblauwe.errorhandlingspringbootstarter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.MDC;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.lang.reflect.UndeclaredThrowableException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+
+import static net.javacrumbs.jsonunit.assertj.JsonAssertions.assertThatJson;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class ErrorHandlingControllerAdviceTest {
+
+    @Test
+    void handlerWithHandledTypesIsUsedForSubclasses() {
+        ErrorHandlingControllerAdvice advice = createAdvice(new IllegalArgumentApiExceptionHandler());
+
+        ResponseEntity<?> responseEntity = advice.handleException(new NumberFormatException("not a number"), null, Locale.ENGLISH);
+
+        ApiErrorResponse response = (ApiErrorResponse) responseEntity.getBody();
+        assertThat(responseEntity.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(response.getCode()).isEqualTo("ILLEGAL_ARGUMENT");
+    }
+
+    @Test
+    void handlerWithHandledTypesIsOnlyAskedForThoseTypes() {
+        IllegalArgumentApiExceptionHandler handler = new IllegalArgumentApiExceptionHandler();
+        ErrorHandlingControllerAdvice advice = createAdvice(handler);
+
+        advice.handleException(new IllegalArgumentException(), null, Locale.ENGLISH);
+        advice.handleException(new IllegalStateException(), null, Locale.ENGLISH);
+
+        assertThat(handler.canHandleCalls).isEqualTo(1);
+    }
+
+    @Test
+    void handlerWithHandledTypesCanDeclineAnException() {
+        ErrorHandlingControllerAdvice advice = createAdvice(new IllegalArgumentApiExceptionHandler() {
+            @Override
+            public boolean canHandle(Throwable exception) {
+                return !"declined".equals(exception.getMessage());
+            }
+        });
+
+        ResponseEntity<?> responseEntity = advice.handleException(new IllegalArgumentException("declined"), null, Locale.ENGLISH);
+
+        assertThat(responseEntity.getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
+    }
+
+    @Test
+    void canHandleOnlyHandlerWithHigherPrecedenceIsConsultedFirst() {
+        ErrorHandlingControllerAdvice advice = createAdvice(new IllegalArgumentApiExceptionHandler(),
+                                                            new CanHandleOnlyApiExceptionHandler());
+
+        ResponseEntity<?> responseEntity = advice.handleException(new IllegalArgumentException("special"), null, Locale.ENGLISH);
+        assertThat(((ApiErrorResponse) responseEntity.getBody()).getCode()).isEqualTo("SPECIAL");
+
+        responseEntity = advice.handleException(new IllegalArgumentException("other"), null, Locale.ENGLISH);
+        assertThat(((ApiErrorResponse) responseEntity.getBody()).getCode()).isEqualTo("ILLEGAL_ARGUMENT");
+    }
+
+    @Test
+    void fallbackIsUsedWhenNoHandlerMatches() {
+        ErrorHandlingControllerAdvice advice = createAdvice(new IllegalArgumentApiExceptionHandler(),
+                                                            new CanHandleOnlyApiExceptionHandler());
+
+        ResponseEntity<?> responseEntity = advice.handleException(new IllegalStateException(), null, Locale.ENGLISH);
+
+        assertThat(responseEntity.getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
+        assertThat(((ApiErrorResponse) responseEntity.getBody()).getCode()).isEqualTo("ILLEGAL_STATE");
+    }
+
+    @Test
+    void causeOfWrapperExceptionIsHandledBySpecificHandler() {
+        ErrorHandlingProperties properties = new ErrorHandlingProperties();
+        properties.getUnwrap().setEnabled(true);
+        ErrorHandlingControllerAdvice advice = createAdvice(properties, new IllegalArgumentApiExceptionHandler());
+
+        ResponseEntity<?> responseEntity = advice.handleException(new UndeclaredThrowableException(new CompletionException(new IllegalArgumentException("wrapped"))),
+                                                                  null, Locale.ENGLISH);
+
+        assertThat(responseEntity.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(((ApiErrorResponse) responseEntity.getBody()).getCode()).isEqualTo("ILLEGAL_ARGUMENT");
+        assertThat(((ApiErrorResponse) responseEntity.getBody()).getMessage()).isEqualTo("wrapped");
+    }
+
+    @Test
+    void causeOfOtherExceptionIsNotUnwrapped() {
+        ErrorHandlingProperties properties = new ErrorHandlingProperties();
+        properties.getUnwrap().setEnabled(true);
+        ErrorHandlingControllerAdvice advice = createAdvice(properties, new IllegalArgumentApiExceptionHandler());
+
+        ResponseEntity<?> responseEntity = advice.handleException(new IllegalStateException(new IllegalArgumentException("wrapped")),
+                                                                  null, Locale.ENGLISH);
+
+        assertThat(((ApiErrorResponse) responseEntity.getBody()).getCode()).isEqualTo("ILLEGAL_STATE");
+    }
+
+    @Test
+    void causeChainIsOnlyUnwrappedUpToMaxDepth() {
+        ErrorHandlingProperties properties = new ErrorHandlingProperties();
+        properties.getUnwrap().setEnabled(true);
+        properties.getUnwrap().setMaxDepth(1);
+        ErrorHandlingControllerAdvice advice = createAdvice(properties, new IllegalArgumentApiExceptionHandler());
+
+        ResponseEntity<?> responseEntity = advice.handleException(new UndeclaredThrowableException(new CompletionException(new IllegalArgumentException("wrapped"))),
+                                                                  null, Locale.ENGLISH);
+
+        assertThat(((ApiErrorResponse) responseEntity.getBody()).getCode()).isEqualTo("UNDECLARED_THROWABLE");
+    }
+
+    @Test
+    void causeChainIsNotUnwrappedByDefault() {
+        ErrorHandlingControllerAdvice advice = createAdvice(new IllegalArgumentApiExceptionHandler());
+
+        ResponseEntity<?> responseEntity = advice.handleException(new CompletionException(new IllegalArgumentException("wrapped")),
+                                                                  null, Locale.ENGLISH);
+
+        assertThat(((ApiErrorResponse) responseEntity.getBody()).getCode()).isEqualTo("COMPLETION");
+    }
+
+    @Test
+    void cycleInCauseChainIsDetected() {
+        ErrorHandlingProperties properties = new ErrorHandlingProperties();
+        properties.getUnwrap().setEnabled(true);
+        properties.getUnwrap().setMaxDepth(100);
+        properties.getUnwrap().setWrapperClasses(Collections.singletonList(CyclicWrapperException.class.getName()));
+        ErrorHandlingControllerAdvice advice = createAdvice(properties, new IllegalArgumentApiExceptionHandler());
+        CyclicWrapperException first = new CyclicWrapperException();
+        CyclicWrapperException second = new CyclicWrapperException();
+        first.cause = second;
+        second.cause = first;
+
+        ResponseEntity<?> responseEntity = advice.handleException(first, null, Locale.ENGLISH);
+
+        assertThat(((ApiErrorResponse) responseEntity.getBody()).getCode()).isEqualTo("CYCLIC_WRAPPER");
+    }
+
+    @Test
+    void constantResponseIsServedFromCacheWhenEnabled() {
+        ErrorHandlingProperties properties = new ErrorHandlingProperties();
+        properties.setCacheConstantResponses(true);
+        ErrorHandlingControllerAdvice advice = createAdviceWithObjectMapper(properties);
+
+        ResponseEntity<?> first = advice.handleException(new ConstantNotFoundException("Not found"), null, Locale.ENGLISH);
+        ResponseEntity<?> second = advice.handleException(new ConstantNotFoundException("Not found"), null, Locale.ENGLISH);
+
+        assertThat(first.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(first.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(first.getBody()).isInstanceOf(byte[].class);
+        assertThat(second.getBody()).isSameAs(first.getBody());
+        assertThatJson(new String((byte[]) first.getBody(), StandardCharsets.UTF_8)).and(
+                jsonAssert -> jsonAssert.node("code").isEqualTo("CONSTANT_NOT_FOUND"),
+                jsonAssert -> jsonAssert.node("message").isEqualTo("Not found")
+        );
+    }
+
+    @Test
+    void responseIsNoLongerCachedWhenMessageChanges() {
+        ErrorHandlingProperties properties = new ErrorHandlingProperties();
+        properties.setCacheConstantResponses(true);
+        ErrorHandlingControllerAdvice advice = createAdviceWithObjectMapper(properties);
+
+        ResponseEntity<?> first = advice.handleException(new ConstantNotFoundException("Not found"), null, Locale.ENGLISH);
+        ResponseEntity<?> second = advice.handleException(new ConstantNotFoundException("Still not found"), null, Locale.ENGLISH);
+        ResponseEntity<?> third = advice.handleException(new ConstantNotFoundException("Not found"), null, Locale.ENGLISH);
+
+        assertThatJson(new String((byte[]) first.getBody(), StandardCharsets.UTF_8)).node("message").isEqualTo("Not found");
+        assertThat(((ApiErrorResponse) second.getBody()).getMessage()).isEqualTo("Still not found");
+        assertThat(((ApiErrorResponse) third.getBody()).getMessage()).isEqualTo("Not found");
+    }
+
+    @Test
+    void constantResponseCacheIsDisabledByDefault() {
+        ErrorHandlingProperties properties = new ErrorHandlingProperties();
+        ErrorHandlingControllerAdvice advice = createAdviceWithObjectMapper(properties);
+
+        ResponseEntity<?> responseEntity = advice.handleException(new ConstantNotFoundException("Not found"), null, Locale.ENGLISH);
+
+        assertThat(responseEntity.getBody()).isInstanceOf(ApiErrorResponse.class);
+    }
+
+    @Test
+    void minimalResponseIsUsedInOverloadMode() {
+        ErrorHandlingProperties properties = new ErrorHandlingProperties();
+        OverloadProtection overloadProtection = new OverloadProtection(1, Duration.ofSeconds(10), 100, () -> 0L, mock(Logger.class));
+        ErrorHandlingControllerAdvice advice = createAdviceWithObjectMapper(properties, overloadProtection);
+
+        ResponseEntity<?> normal = advice.handleException(new ConstantNotFoundException("Not found"), null, Locale.ENGLISH);
+        ResponseEntity<?> first = advice.handleException(new ConstantNotFoundException("Not found"), null, Locale.ENGLISH);
+        ResponseEntity<?> second = advice.handleException(new ConstantNotFoundException("Other message"), null, Locale.ENGLISH);
+
+        assertThat(((ApiErrorResponse) normal.getBody()).getMessage()).isEqualTo("Not found");
+        assertThat(first.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(second.getBody()).isSameAs(first.getBody());
+        assertThatJson(new String((byte[]) first.getBody(), StandardCharsets.UTF_8)).and(
+                jsonAssert -> jsonAssert.node("code").isEqualTo("CONSTANT_NOT_FOUND"),
+                jsonAssert -> jsonAssert.node("message").isEqualTo("Not Found")
+        );
+    }
+
+    @Test
+    void traceIdFromMdcIsAddedToResponse() {
+        ErrorHandlingProperties properties = new ErrorHandlingProperties();
+        properties.getTraceId().setEnabled(true);
+        ErrorHandlingControllerAdvice advice = createAdvice(properties, new IllegalArgumentApiExceptionHandler());
+
+        MDC.put("traceId", "4bf92f3577b34da6");
+        try {
+            ResponseEntity<?> responseEntity = advice.handleException(new IllegalArgumentException("Invalid"), null, Locale.ENGLISH);
+
+            assertThat(((ApiErrorResponse) responseEntity.getBody()).getTraceId()).isEqualTo("4bf92f3577b34da6");
+        } finally {
+            MDC.remove("traceId");
+        }
+    }
+
+    @Test
+    void traceIdIsAddedToCachedResponse() {
+        ErrorHandlingProperties properties = new ErrorHandlingProperties();
+        properties.setCacheConstantResponses(true);
+        properties.getTraceId().setEnabled(true);
+        ErrorHandlingControllerAdvice advice = createAdviceWithObjectMapper(properties);
+
+        MDC.put("traceId", "4bf92f3577b34da6");
+        try {
+            advice.handleException(new ConstantNotFoundException("Not found"), null, Locale.ENGLISH);
+            ResponseEntity<?> responseEntity = advice.handleException(new ConstantNotFoundException("Not found"), null, Locale.ENGLISH);
+
+            assertThatJson(new String((byte[]) responseEntity.getBody(), StandardCharsets.UTF_8)).and(
+                    jsonAssert -> jsonAssert.node("code").isEqualTo("CONSTANT_NOT_FOUND"),
+                    jsonAssert -> jsonAssert.node("message").isEqualTo("Not found"),
+                    jsonAssert -> jsonAssert.node("traceId").isEqualTo("4bf92f3577b34da6")
+            );
+        } finally {
+            MDC.remove("traceId");
+        }
+    }
+
+    private static ErrorHandlingControllerAdvice createAdviceWithObjectMapper(ErrorHandlingProperties properties) {
+        return createAdviceWithObjectMapper(properties, null);
+    }
+
+    private static ErrorHandlingControllerAdvice createAdviceWithObjectMapper(ErrorHandlingProperties properties,
+                                                                              OverloadProtection overloadProtection) {
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new SimpleModule().addSerializer(ApiErrorResponse.class, new ApiErrorResponseSerializer(properties)));
+        return new ErrorHandlingControllerAdvice(properties,
+                                                 new ArrayList<>(),
+                                                 new DefaultFallbackApiExceptionHandler(properties),
+                                                 objectMapper,
+                                                 ErrorHandlingMetrics.NONE,
+                                                 null,
+                                                 null,
+                                                 overloadProtection);
+    }
+
+    private static ErrorHandlingControllerAdvice createAdvice(ApiExceptionHandler... handlers) {
+        return createAdvice(new ErrorHandlingProperties(), handlers);
+    }
+
+    private static ErrorHandlingControllerAdvice createAdvice(ErrorHandlingProperties properties,
+                                                              ApiExceptionHandler... handlers) {
+        List<ApiExceptionHandler> handlerList = new ArrayList<>();
+        Collections.addAll(handlerList, handlers);
+        return new ErrorHandlingControllerAdvice(properties,
+                                                 handlerList,
+                                                 new DefaultFallbackApiExceptionHandler(properties));
+    }
+
+    static class IllegalArgumentApiExceptionHandler implements ApiExceptionHandler {
+        private int canHandleCalls;
+
+        @Override
+        public boolean canHandle(Throwable exception) {
+            canHandleCalls++;
+            return exception instanceof IllegalArgumentException;
+        }
+
+        @Override
+        public Set<Class<? extends Throwable>> handledTypes() {
+            return Collections.singleton(IllegalArgumentException.class);
+        }
+
+        @Override
+        public ApiErrorResponse handle(Throwable exception) {
+            return new ApiErrorResponse(HttpStatus.BAD_REQUEST, "ILLEGAL_ARGUMENT", exception.getMessage());
+        }
+    }
+
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    @ResponseErrorCode("CONSTANT_NOT_FOUND")
+    static class ConstantNotFoundException extends RuntimeException {
+        ConstantNotFoundException(String message) {
+            super(message);
+        }
+    }
+
+    static class CyclicWrapperException extends RuntimeException {
+        private Throwable cause;
+
+        @Override
+        public synchronized Throwable getCause() {
+            return cause;
+        }
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    static class CanHandleOnlyApiExceptionHandler implements ApiExceptionHandler {
+        @Override
+        public boolean canHandle(Throwable exception) {
+            return "special".equals(exception.getMessage());
+        }
+
+        @Override
+        public ApiErrorResponse handle(Throwable exception) {
+            return new ApiErrorResponse(HttpStatus.BAD_REQUEST, "SPECIAL", exception.getMessage());
+        }
+    }
+}
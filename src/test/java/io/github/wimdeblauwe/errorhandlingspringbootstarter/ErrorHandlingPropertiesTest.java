@@ -9,6 +9,7 @@ import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 @ExtendWith(SpringExtension.class)
 @EnableConfigurationProperties(value = ErrorHandlingProperties.class)
@@ -39,4 +40,48 @@ class ErrorHandlingPropertiesTest {
                 .hasEntrySatisfying("java.lang.NullPointerException", message -> assertThat(message).isEqualTo("A null pointer was thrown!"));
     }
 
+    @Test
+    void snapshotCanNotBeChanged() {
+        ErrorHandlingProperties snapshot = new ErrorHandlingProperties().snapshot();
+
+        assertThat(snapshot.snapshot()).isSameAs(snapshot);
+        assertThatThrownBy(() -> snapshot.getCodes().put("java.lang.IllegalStateException", "INVALID_STATE"))
+                .isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> snapshot.getLogRateLimit().setLimit(5))
+                .isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> snapshot.getTraceId().getMdcKeys().add("correlationId"))
+                .isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    void snapshotIsCreatedAgainAfterChange() {
+        ErrorHandlingProperties properties = new ErrorHandlingProperties();
+        ErrorHandlingProperties snapshot = properties.snapshot();
+        assertThat(properties.snapshot()).isSameAs(snapshot);
+
+        properties.getLogRateLimit().setLimit(5);
+
+        ErrorHandlingProperties changedSnapshot = properties.snapshot();
+        assertThat(changedSnapshot).isNotSameAs(snapshot);
+        assertThat(changedSnapshot.getRevision()).isNotEqualTo(snapshot.getRevision());
+        assertThat(changedSnapshot.getLogRateLimit().getLimit()).isEqualTo(5);
+        assertThat(snapshot.getLogRateLimit().getLimit()).isEqualTo(10);
+    }
+
+    @Test
+    void publishedPropertiesBecomeTheSnapshot() {
+        ErrorHandlingProperties properties = new ErrorHandlingProperties();
+        properties.getCodes().put("java.lang.IllegalArgumentException", "INVALID_ARGUMENT");
+        ErrorHandlingProperties snapshot = properties.snapshot();
+
+        ErrorHandlingProperties boundProperties = new ErrorHandlingProperties();
+        boundProperties.getCodes().put("java.lang.IllegalStateException", "INVALID_STATE");
+        properties.publish(boundProperties);
+
+        assertThat(properties.snapshot()).isNotSameAs(snapshot);
+        assertThat(properties.snapshot().getCodes()).containsOnlyKeys("java.lang.IllegalStateException");
+
+        properties.getLogRateLimit().setLimit(5);
+        assertThat(properties.snapshot().getLogRateLimit().getLimit()).isEqualTo(5);
+    }
 }
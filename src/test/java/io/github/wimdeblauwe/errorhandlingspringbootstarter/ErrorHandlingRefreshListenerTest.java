@@ -0,0 +1,77 @@
+package io.github.wimdeblauwe.errorhandlingspringbootstarter;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ErrorHandlingRefreshListenerTest {
+
+    @Test
+    void refreshesAllRefreshables() {
+        AtomicInteger refreshCount = new AtomicInteger();
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("first", (Refreshable) refreshCount::incrementAndGet);
+        beanFactory.addBean("failing", (Refreshable) () -> {
+            throw new IllegalStateException("Refresh failed");
+        });
+        beanFactory.addBean("second", (Refreshable) refreshCount::incrementAndGet);
+        ErrorHandlingRefreshListener listener = new ErrorHandlingRefreshListener(new ErrorHandlingProperties(),
+                                                                                 new StandardEnvironment(),
+                                                                                 beanFactory.getBeanProvider(Refreshable.class));
+
+        listener.refresh();
+
+        assertThat(refreshCount).hasValue(2);
+        listener.destroy();
+    }
+
+    @Test
+    void onlySupportsEnvironmentChangeEvent() {
+        ErrorHandlingRefreshListener listener = new ErrorHandlingRefreshListener(new ErrorHandlingProperties(),
+                                                                                 new StandardEnvironment(),
+                                                                                 new StaticListableBeanFactory().getBeanProvider(Refreshable.class));
+
+        assertThat(listener.supportsEventType(ContextRefreshedEvent.class)).isFalse();
+        listener.destroy();
+    }
+
+    @Test
+    void handlerUsesChangedCodeOverrideAfterRefresh() {
+        ErrorHandlingProperties properties = new ErrorHandlingProperties();
+        DefaultFallbackApiExceptionHandler handler = new DefaultFallbackApiExceptionHandler(properties);
+        assertThat(handler.handle(new IllegalStateException()).getCode()).isEqualTo("ILLEGAL_STATE");
+
+        properties.getCodes().put(IllegalStateException.class.getName(), "INVALID_STATE");
+        handler.refresh();
+
+        assertThat(handler.handle(new IllegalStateException()).getCode()).isEqualTo("INVALID_STATE");
+    }
+
+    @Test
+    void removedCodeOverrideIsNoLongerUsedAfterRebind() {
+        StandardEnvironment environment = new StandardEnvironment();
+        environment.getPropertySources().addFirst(new MapPropertySource("test", Collections.singletonMap(
+                "error.handling.codes.java.lang.IllegalStateException", "INVALID_STATE")));
+        ErrorHandlingProperties properties = new ErrorHandlingProperties();
+        ErrorHandlingRefreshListener listener = new ErrorHandlingRefreshListener(properties,
+                                                                                 environment,
+                                                                                 new StaticListableBeanFactory().getBeanProvider(Refreshable.class));
+        DefaultFallbackApiExceptionHandler handler = new DefaultFallbackApiExceptionHandler(properties);
+        listener.rebind();
+        assertThat(handler.handle(new IllegalStateException()).getCode()).isEqualTo("INVALID_STATE");
+
+        environment.getPropertySources().replace("test", new MapPropertySource("test", Collections.emptyMap()));
+        listener.rebind();
+
+        assertThat(handler.handle(new IllegalStateException()).getCode()).isEqualTo("ILLEGAL_STATE");
+        assertThat(properties.getCodes()).isEmpty();
+        listener.destroy();
+    }
+}
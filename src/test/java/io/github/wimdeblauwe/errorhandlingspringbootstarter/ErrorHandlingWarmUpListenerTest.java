@@ -0,0 +1,62 @@
+package io.github.wimdeblauwe.errorhandlingspringbootstarter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ErrorHandlingWarmUpListenerTest {
+
+    @Test
+    void annotatedExceptionClassesAreWarmedUp() {
+        Set<Class<?>> warmedUp = ConcurrentHashMap.newKeySet();
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("recording", (ExceptionClassWarmUp) warmedUp::add);
+        beanFactory.addBean("failing", (ExceptionClassWarmUp) exceptionClass -> {
+            throw new IllegalStateException("Warm-up failed");
+        });
+        beanFactory.addBean("objectMapper", new ObjectMapper());
+        ErrorHandlingWarmUpListener listener = new ErrorHandlingWarmUpListener(Collections.singletonList(getClass().getPackage().getName()),
+                                                                               beanFactory.getBeanProvider(ExceptionClassWarmUp.class),
+                                                                               beanFactory.getBeanProvider(ObjectMapper.class));
+
+        Set<Class<? extends Throwable>> exceptionClasses = listener.warmUp();
+
+        assertThat(exceptionClasses).contains(WarmUpWithStatusException.class, WarmUpWithCodeException.class, WarmUpWithPropertyException.class)
+                                    .doesNotContain(WarmUpWithoutAnnotationsException.class);
+        assertThat(warmedUp).containsAll(exceptionClasses);
+    }
+
+    @Test
+    void withoutExceptionClasses() {
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        ErrorHandlingWarmUpListener listener = new ErrorHandlingWarmUpListener(Collections.singletonList("com.example.unknown"),
+                                                                               beanFactory.getBeanProvider(ExceptionClassWarmUp.class),
+                                                                               beanFactory.getBeanProvider(ObjectMapper.class));
+
+        assertThat(listener.warmUp()).isEmpty();
+    }
+
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    static class WarmUpWithStatusException extends RuntimeException {
+    }
+
+    @ResponseErrorCode("WARM_UP")
+    static class WarmUpWithCodeException extends RuntimeException {
+    }
+
+    static class WarmUpWithPropertyException extends RuntimeException {
+        @ResponseErrorProperty
+        private final String property = "value";
+    }
+
+    static class WarmUpWithoutAnnotationsException extends RuntimeException {
+    }
+}
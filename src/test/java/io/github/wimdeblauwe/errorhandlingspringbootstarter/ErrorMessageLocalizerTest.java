@@ -0,0 +1,110 @@
+package io.github.wimdeblauwe.errorhandlingspringbootstarter;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.context.support.StaticMessageSource;
+import org.springframework.http.HttpStatus;
+
+import java.util.Collections;
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ErrorMessageLocalizerTest {
+
+    @Test
+    void messageIsResolvedForLocale() {
+        StaticMessageSource messageSource = new StaticMessageSource();
+        messageSource.addMessage("error.handling.messages.USER_NOT_FOUND", Locale.ENGLISH, "User not found");
+        messageSource.addMessage("error.handling.messages.USER_NOT_FOUND", Locale.GERMAN, "Benutzer nicht gefunden");
+        ErrorMessageLocalizer localizer = new ErrorMessageLocalizer(messageSource);
+        ApiErrorResponse response = new ApiErrorResponse(HttpStatus.NOT_FOUND, "USER_NOT_FOUND", "No user with id 1");
+        response.addErrorProperty("userId", 1);
+
+        ApiErrorResponse english = localizer.localize(response, Locale.ENGLISH);
+        ApiErrorResponse german = localizer.localize(response, Locale.GERMAN);
+
+        assertThat(english.getMessage()).isEqualTo("User not found");
+        assertThat(german.getMessage()).isEqualTo("Benutzer nicht gefunden");
+        assertThat(german.getCode()).isEqualTo("USER_NOT_FOUND");
+        assertThat(german.getHttpStatus()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(german.getProperties()).containsEntry("userId", 1);
+    }
+
+    @Test
+    void originalMessageIsKeptIfThereIsNoLocalizedMessage() {
+        ErrorMessageLocalizer localizer = new ErrorMessageLocalizer(new StaticMessageSource());
+        ApiErrorResponse response = new ApiErrorResponse(HttpStatus.NOT_FOUND, "USER_NOT_FOUND", "No user with id 1");
+        response.addGlobalError(new ApiGlobalError("PASSWORDS_MISMATCH", "Passwords do not match"));
+
+        ApiErrorResponse localized = localizer.localize(response, Locale.ENGLISH);
+
+        assertThat(localized.getMessage()).isEqualTo("No user with id 1");
+        assertThat(localized.getGlobalErrors()).extracting(ApiGlobalError::getMessage).containsExactly("Passwords do not match");
+    }
+
+    @Test
+    void fieldErrorMessageUsesArguments() {
+        StaticMessageSource messageSource = new StaticMessageSource();
+        messageSource.addMessage("error.handling.messages.REQUIRED_NOT_BLANK", Locale.ENGLISH, "''{0}'' is required, but was ''{1}''");
+        ErrorMessageLocalizer localizer = new ErrorMessageLocalizer(messageSource);
+        ApiErrorResponse response = new ApiErrorResponse(HttpStatus.BAD_REQUEST, "VALIDATION_FAILED", "Validation failed");
+        response.addFieldError(new ApiFieldError("REQUIRED_NOT_BLANK", "name", "must not be blank", " "));
+
+        ApiErrorResponse localized = localizer.localize(response, Locale.ENGLISH);
+
+        assertThat(localized.getFieldErrors()).hasSize(1);
+        ApiFieldError fieldError = localized.getFieldErrors().get(0);
+        assertThat(fieldError.getMessage()).isEqualTo("'name' is required, but was ' '");
+        assertThat(fieldError.getCode()).isEqualTo("REQUIRED_NOT_BLANK");
+        assertThat(fieldError.getRejectedValue()).isEqualTo(" ");
+    }
+
+    @Test
+    void originalMessageIsKeptIfMessageSourceUsesCodeAsDefaultMessage() {
+        StaticMessageSource messageSource = new StaticMessageSource();
+        messageSource.setUseCodeAsDefaultMessage(true);
+        ErrorMessageLocalizer localizer = new ErrorMessageLocalizer(messageSource);
+        ApiErrorResponse response = new ApiErrorResponse(HttpStatus.NOT_FOUND, "USER_NOT_FOUND", "No user with id 1");
+
+        ApiErrorResponse localized = localizer.localize(response, Locale.ENGLISH);
+
+        assertThat(localized.getMessage()).isEqualTo("No user with id 1");
+    }
+
+    @Test
+    void rejectedValueArgumentIsBounded() {
+        StaticMessageSource messageSource = new StaticMessageSource();
+        messageSource.addMessage("error.handling.messages.INVALID", Locale.ENGLISH, "Invalid: ''{1}''");
+        ErrorMessageLocalizer localizer = new ErrorMessageLocalizer(messageSource);
+        ApiErrorResponse response = new ApiErrorResponse(HttpStatus.BAD_REQUEST, "VALIDATION_FAILED", "Validation failed");
+        response.addFieldError(new ApiFieldError("INVALID", "name", "invalid", String.join("", Collections.nCopies(150, "a"))));
+        response.addFieldError(new ApiFieldError("INVALID", "count", "invalid", 42));
+        response.addFieldError(new ApiFieldError("INVALID", "payload", "invalid", new Object() {
+            @Override
+            public String toString() {
+                throw new IllegalStateException("toString() must not be called");
+            }
+        }));
+
+        ApiErrorResponse localized = localizer.localize(response, Locale.ENGLISH);
+
+        assertThat(localized.getFieldErrors()).extracting(ApiFieldError::getMessage).containsExactly(
+                "Invalid: '" + String.join("", Collections.nCopies(100, "a")) + "...'",
+                "Invalid: '42'",
+                "Invalid: ''");
+    }
+
+    @Test
+    void changedMessageIsUsedAfterRefresh() {
+        StaticMessageSource messageSource = new StaticMessageSource();
+        messageSource.addMessage("error.handling.messages.USER_NOT_FOUND", Locale.ENGLISH, "User not found");
+        ErrorMessageLocalizer localizer = new ErrorMessageLocalizer(messageSource);
+        ApiErrorResponse response = new ApiErrorResponse(HttpStatus.NOT_FOUND, "USER_NOT_FOUND", "No user with id 1");
+        assertThat(localizer.localize(response, Locale.ENGLISH).getMessage()).isEqualTo("User not found");
+
+        messageSource.addMessage("error.handling.messages.USER_NOT_FOUND", Locale.ENGLISH, "Unknown user");
+        localizer.refresh();
+
+        assertThat(localizer.localize(response, Locale.ENGLISH).getMessage()).isEqualTo("Unknown user");
+    }
+}
@@ -0,0 +1,52 @@
+package io.github.wimdeblauwe.errorhandlingspringbootstarter;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExceptionHierarchyMappingTest {
+
+    @Test
+    void nearestSuperclassIsUsed() {
+        ErrorHandlingProperties properties = new ErrorHandlingProperties();
+        properties.getHttpStatuses().put(IllegalArgumentException.class.getName(), HttpStatus.BAD_REQUEST);
+        properties.getHttpStatuses().put(RuntimeException.class.getName(), HttpStatus.SERVICE_UNAVAILABLE);
+        properties.getCodes().put(RuntimeException.class.getName(), "RUNTIME");
+
+        ExceptionHierarchyMapping mapping = ExceptionHierarchyMapping.of(properties);
+
+        assertThat(mapping.getHttpStatus(NumberFormatException.class)).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(mapping.getHttpStatus(IllegalStateException.class)).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(mapping.getHttpStatus(Exception.class)).isNull();
+        assertThat(mapping.getCode(NumberFormatException.class)).isEqualTo("RUNTIME");
+        assertThat(mapping.getCode(Exception.class)).isNull();
+    }
+
+    @Test
+    void fullStacktraceClassesIncludeSubclasses() {
+        ErrorHandlingProperties properties = new ErrorHandlingProperties();
+        properties.setFullStacktraceClasses(Collections.singletonList(IllegalArgumentException.class));
+
+        ExceptionHierarchyMapping mapping = ExceptionHierarchyMapping.of(properties);
+
+        assertThat(mapping.isFullStacktrace(IllegalArgumentException.class)).isTrue();
+        assertThat(mapping.isFullStacktrace(NumberFormatException.class)).isTrue();
+        assertThat(mapping.isFullStacktrace(IllegalStateException.class)).isFalse();
+    }
+
+    @Test
+    void mappingIsSharedUntilPropertiesChange() {
+        ErrorHandlingProperties properties = new ErrorHandlingProperties();
+        ExceptionHierarchyMapping mapping = ExceptionHierarchyMapping.of(properties);
+        assertThat(ExceptionHierarchyMapping.of(properties)).isSameAs(mapping);
+        assertThat(mapping.getCode(IllegalStateException.class)).isNull();
+
+        properties.getCodes().put(IllegalStateException.class.getName(), "INVALID_STATE");
+
+        assertThat(ExceptionHierarchyMapping.of(properties)).isNotSameAs(mapping);
+        assertThat(ExceptionHierarchyMapping.of(properties).getCode(IllegalStateException.class)).isEqualTo("INVALID_STATE");
+    }
+}
@@ -0,0 +1,134 @@
+package io.github.wimdeblauwe.errorhandlingspringbootstarter;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+class ExceptionLogRateLimiterTest {
+
+    @Test
+    void everythingIsLoggedWhenDisabled() {
+        ErrorHandlingProperties properties = new ErrorHandlingProperties();
+        properties.getLogRateLimit().setLimit(1);
+        ExceptionLogRateLimiter rateLimiter = new ExceptionLogRateLimiter(properties, System::nanoTime, mock(Logger.class), false);
+
+        assertThat(rateLimiter.tryAcquire(new IllegalStateException(), "ILLEGAL_STATE")).isTrue();
+        assertThat(rateLimiter.tryAcquire(new IllegalStateException(), "ILLEGAL_STATE")).isTrue();
+    }
+
+    @Test
+    void onlyTheFirstOccurrencesPerCodeAreLogged() {
+        ErrorHandlingProperties properties = createProperties(2);
+        AtomicLong clock = new AtomicLong();
+        ExceptionLogRateLimiter rateLimiter = new ExceptionLogRateLimiter(properties, clock::get, mock(Logger.class), false);
+
+        assertThat(rateLimiter.tryAcquire(new IllegalStateException(), "VALIDATION_FAILED")).isTrue();
+        assertThat(rateLimiter.tryAcquire(new IllegalArgumentException(), "VALIDATION_FAILED")).isTrue();
+        assertThat(rateLimiter.tryAcquire(new IllegalStateException(), "VALIDATION_FAILED")).isFalse();
+        assertThat(rateLimiter.tryAcquire(new IllegalStateException(), "OTHER")).isTrue();
+    }
+
+    @Test
+    void keyCanBeTheExceptionClass() {
+        ErrorHandlingProperties properties = createProperties(1);
+        properties.getLogRateLimit().setKey(ErrorHandlingProperties.LogRateLimitKey.EXCEPTION_CLASS);
+        AtomicLong clock = new AtomicLong();
+        ExceptionLogRateLimiter rateLimiter = new ExceptionLogRateLimiter(properties, clock::get, mock(Logger.class), false);
+
+        assertThat(rateLimiter.tryAcquire(new IllegalStateException(), "VALIDATION_FAILED")).isTrue();
+        assertThat(rateLimiter.tryAcquire(new IllegalArgumentException(), "VALIDATION_FAILED")).isTrue();
+        assertThat(rateLimiter.tryAcquire(new IllegalStateException(), "OTHER")).isFalse();
+    }
+
+    @Test
+    void summaryIsLoggedOnFlushWithoutFurtherExceptions() {
+        ErrorHandlingProperties properties = createProperties(1);
+        AtomicLong clock = new AtomicLong();
+        Logger logger = mock(Logger.class);
+        ExceptionLogRateLimiter rateLimiter = new ExceptionLogRateLimiter(properties, clock::get, logger, false);
+
+        assertThat(rateLimiter.tryAcquire(new IllegalStateException(), "VALIDATION_FAILED")).isTrue();
+        for (int i = 0; i < 1234; i++) {
+            assertThat(rateLimiter.tryAcquire(new IllegalStateException(), "VALIDATION_FAILED")).isFalse();
+        }
+        verify(logger, never()).warn(anyString());
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        rateLimiter.flush();
+        verify(logger).warn("Suppressed logging of 1,234 VALIDATION_FAILED exceptions in the last 10s");
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        rateLimiter.flush();
+        verifyNoMoreInteractions(logger);
+    }
+
+    @Test
+    void nextIntervalStartsAfterInterval() {
+        ErrorHandlingProperties properties = createProperties(1);
+        AtomicLong clock = new AtomicLong();
+        ExceptionLogRateLimiter rateLimiter = new ExceptionLogRateLimiter(properties, clock::get, mock(Logger.class), false);
+
+        assertThat(rateLimiter.tryAcquire(new IllegalStateException(), "VALIDATION_FAILED")).isTrue();
+        assertThat(rateLimiter.tryAcquire(new IllegalStateException(), "VALIDATION_FAILED")).isFalse();
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        assertThat(rateLimiter.tryAcquire(new IllegalStateException(), "VALIDATION_FAILED")).isTrue();
+        assertThat(rateLimiter.tryAcquire(new IllegalStateException(), "VALIDATION_FAILED")).isFalse();
+    }
+
+    @Test
+    void unusedKeysAreRemovedOnFlush() {
+        ErrorHandlingProperties properties = createProperties(1);
+        AtomicLong clock = new AtomicLong();
+        Logger logger = mock(Logger.class);
+        ExceptionLogRateLimiter rateLimiter = new ExceptionLogRateLimiter(properties, clock::get, logger, false);
+        for (int i = 0; i < ExceptionLogRateLimiter.MAX_KEYS; i++) {
+            assertThat(rateLimiter.tryAcquire(new IllegalStateException(), "CODE_" + i)).isTrue();
+        }
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        rateLimiter.flush();
+
+        assertThat(rateLimiter.tryAcquire(new IllegalStateException(), "NEW_CODE")).isTrue();
+        assertThat(rateLimiter.tryAcquire(new IllegalStateException(), "NEW_CODE")).isFalse();
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        rateLimiter.flush();
+        verify(logger).warn("Suppressed logging of 1 NEW_CODE exceptions in the last 10s");
+    }
+
+    @Test
+    void numberOfKeysIsLimited() {
+        ErrorHandlingProperties properties = createProperties(1);
+        AtomicLong clock = new AtomicLong();
+        Logger logger = mock(Logger.class);
+        ExceptionLogRateLimiter rateLimiter = new ExceptionLogRateLimiter(properties, clock::get, logger, false);
+        for (int i = 0; i < ExceptionLogRateLimiter.MAX_KEYS; i++) {
+            assertThat(rateLimiter.tryAcquire(new IllegalStateException(), "CODE_" + i)).isTrue();
+        }
+
+        assertThat(rateLimiter.tryAcquire(new IllegalStateException(), "FIRST_UNTRACKED")).isTrue();
+        assertThat(rateLimiter.tryAcquire(new IllegalStateException(), "SECOND_UNTRACKED")).isFalse();
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        rateLimiter.flush();
+        verify(logger).warn("Suppressed logging of 1 other exceptions in the last 10s");
+    }
+
+    private static ErrorHandlingProperties createProperties(int limit) {
+        ErrorHandlingProperties properties = new ErrorHandlingProperties();
+        properties.getLogRateLimit().setEnabled(true);
+        properties.getLogRateLimit().setLimit(limit);
+        properties.getLogRateLimit().setInterval(Duration.ofSeconds(10));
+        return properties;
+    }
+}
@@ -0,0 +1,67 @@
+package io.github.wimdeblauwe.errorhandlingspringbootstarter;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExceptionMessagesTest {
+
+    @Test
+    void messageIsComputedOnceWhileCaching() {
+        AtomicInteger messageCount = new AtomicInteger();
+        RuntimeException exception = new RuntimeException() {
+            @Override
+            public String getMessage() {
+                return "Message " + messageCount.incrementAndGet();
+            }
+        };
+
+        Map<Throwable, String> previous = ExceptionMessages.startCaching();
+        try {
+            assertThat(ExceptionMessages.getMessage(exception)).isEqualTo("Message 1");
+            assertThat(ExceptionMessages.getMessage(exception)).isEqualTo("Message 1");
+        } finally {
+            ExceptionMessages.stopCaching(previous);
+        }
+
+        assertThat(ExceptionMessages.getMessage(exception)).isEqualTo("Message 2");
+    }
+
+    @Test
+    void messageIsTruncated() {
+        ErrorHandlingProperties properties = new ErrorHandlingProperties();
+        properties.setMaxMessageLength(10);
+        ApiErrorResponse response = new ApiErrorResponse(HttpStatus.BAD_REQUEST, "TEST_CODE", "This message is too long");
+        response.addErrorProperty("property", "value");
+        response.addFieldError(new ApiFieldError("FIELD_ERROR_CODE", "testField", "Test Field Message", "bad"));
+
+        ApiErrorResponse limited = ExceptionMessages.applyMessageBudget(response, properties);
+
+        assertThat(limited.getMessage()).isEqualTo("This messa...");
+        assertThat(limited.getCode()).isEqualTo("TEST_CODE");
+        assertThat(limited.getHttpStatus()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(limited.getProperties()).containsEntry("property", "value");
+        assertThat(limited.getFieldErrors()).hasSize(1);
+    }
+
+    @Test
+    void nestedCauseMessageIsRemoved() {
+        ErrorHandlingProperties properties = new ErrorHandlingProperties();
+        properties.setIncludeNestedCauseMessage(false);
+        ApiErrorResponse response = new ApiErrorResponse(HttpStatus.BAD_REQUEST, "TEST_CODE",
+                                                         "JSON parse error: Unexpected character; nested exception is com.fasterxml.jackson.core.JsonParseException: Unexpected character");
+
+        assertThat(ExceptionMessages.applyMessageBudget(response, properties).getMessage()).isEqualTo("JSON parse error: Unexpected character");
+    }
+
+    @Test
+    void responseIsKeptWithinBudget() {
+        ApiErrorResponse response = new ApiErrorResponse(HttpStatus.BAD_REQUEST, "TEST_CODE", "Short message");
+
+        assertThat(ExceptionMessages.applyMessageBudget(response, new ErrorHandlingProperties())).isSameAs(response);
+    }
+}
@@ -0,0 +1,114 @@
+package io.github.wimdeblauwe.errorhandlingspringbootstarter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MockClock;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MicrometerErrorHandlingMetricsTest {
+
+    @Test
+    void recordIncrementsCounterAndTimer() {
+        MockClock clock = new MockClock();
+        SimpleMeterRegistry registry = new SimpleMeterRegistry(SimpleConfig.DEFAULT, clock);
+        MicrometerErrorHandlingMetrics metrics = new MicrometerErrorHandlingMetrics(registry);
+
+        long startTime = metrics.startTime();
+        clock.add(5, TimeUnit.MILLISECONDS);
+        metrics.record(startTime, "USER_NOT_FOUND", HttpStatus.NOT_FOUND, DefaultFallbackApiExceptionHandler.class);
+        metrics.record(metrics.startTime(), "USER_NOT_FOUND", HttpStatus.NOT_FOUND, DefaultFallbackApiExceptionHandler.class);
+
+        Counter counter = registry.get(MicrometerErrorHandlingMetrics.ERRORS_METER_NAME)
+                                  .tag("code", "USER_NOT_FOUND")
+                                  .tag("status", "404")
+                                  .tag("handler", DefaultFallbackApiExceptionHandler.class.getName())
+                                  .counter();
+        assertThat(counter.count()).isEqualTo(2);
+        Timer timer = registry.get(MicrometerErrorHandlingMetrics.DURATION_METER_NAME)
+                              .tag("code", "USER_NOT_FOUND")
+                              .timer();
+        assertThat(timer.count()).isEqualTo(2);
+        assertThat(timer.totalTime(TimeUnit.MILLISECONDS)).isEqualTo(5);
+    }
+
+    @Test
+    void metersAreRegisteredPerCombinationOfTags() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        MicrometerErrorHandlingMetrics metrics = new MicrometerErrorHandlingMetrics(registry);
+
+        metrics.record(metrics.startTime(), "USER_NOT_FOUND", HttpStatus.NOT_FOUND, DefaultFallbackApiExceptionHandler.class);
+        metrics.record(metrics.startTime(), "USER_NOT_FOUND", HttpStatus.NOT_FOUND, DefaultFallbackApiExceptionHandler.class);
+        metrics.record(metrics.startTime(), "USER_NOT_FOUND", HttpStatus.GONE, DefaultFallbackApiExceptionHandler.class);
+        metrics.record(metrics.startTime(), null, HttpStatus.BAD_REQUEST, DefaultFallbackApiExceptionHandler.class);
+
+        assertThat(registry.get(MicrometerErrorHandlingMetrics.ERRORS_METER_NAME).counters()).hasSize(3);
+        assertThat(registry.get(MicrometerErrorHandlingMetrics.ERRORS_METER_NAME).tag("code", "UNKNOWN").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void meterBindersRegisterDroppedLogRecordsAndOverloadMode() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        AsyncExceptionLogger asyncExceptionLogger = new AsyncExceptionLogger(16);
+        beanFactory.addBean("asyncExceptionLogger", asyncExceptionLogger);
+        beanFactory.addBean("overloadProtection", new OverloadProtection(1000, Duration.ofSeconds(10), 100));
+        ErrorHandlingMetricsConfiguration configuration = new ErrorHandlingMetricsConfiguration();
+
+        configuration.asyncExceptionLoggerMetrics(beanFactory.getBeanProvider(AsyncExceptionLogger.class)).bindTo(registry);
+        configuration.overloadProtectionMetrics(beanFactory.getBeanProvider(OverloadProtection.class)).bindTo(registry);
+
+        assertThat(registry.get("error.handling.logging.dropped").functionCounter().count()).isEqualTo(0);
+        assertThat(registry.get("error.handling.overload").gauge().value()).isEqualTo(0);
+        asyncExceptionLogger.close();
+    }
+
+    @Test
+    void meterBindersRegisterNothingWithoutTheirComponent() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        ErrorHandlingMetricsConfiguration configuration = new ErrorHandlingMetricsConfiguration();
+
+        configuration.asyncExceptionLoggerMetrics(beanFactory.getBeanProvider(AsyncExceptionLogger.class)).bindTo(registry);
+        configuration.overloadProtectionMetrics(beanFactory.getBeanProvider(OverloadProtection.class)).bindTo(registry);
+
+        assertThat(registry.getMeters()).isEmpty();
+    }
+
+    @Test
+    void adviceRecordsHandledExceptions() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ErrorHandlingProperties properties = new ErrorHandlingProperties();
+        ErrorHandlingControllerAdvice advice = new ErrorHandlingControllerAdvice(properties,
+                                                                                 new ArrayList<>(),
+                                                                                 new DefaultFallbackApiExceptionHandler(properties),
+                                                                                 null,
+                                                                                 new MicrometerErrorHandlingMetrics(registry),
+                                                                                 null,
+                                                                                 null,
+                                                                                 null);
+
+        advice.handleException(new IllegalStateException(), null, Locale.ENGLISH);
+
+        assertThat(registry.get(MicrometerErrorHandlingMetrics.ERRORS_METER_NAME)
+                           .tag("code", "ILLEGAL_STATE")
+                           .tag("status", "500")
+                           .tag("handler", DefaultFallbackApiExceptionHandler.class.getName())
+                           .counter()
+                           .count()).isEqualTo(1);
+        assertThat(registry.get(MicrometerErrorHandlingMetrics.DURATION_METER_NAME)
+                           .tag("code", "ILLEGAL_STATE")
+                           .timer()
+                           .count()).isEqualTo(1);
+    }
+}
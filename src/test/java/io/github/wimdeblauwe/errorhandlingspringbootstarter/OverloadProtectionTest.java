@@ -0,0 +1,73 @@
+package io.github.wimdeblauwe.errorhandlingspringbootstarter;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class OverloadProtectionTest {
+
+    @Test
+    void overloadModeStartsWhenThresholdIsExceeded() {
+        AtomicLong clock = new AtomicLong();
+        Logger logger = mock(Logger.class);
+        OverloadProtection overloadProtection = new OverloadProtection(3, Duration.ofSeconds(10), 100, clock::get, logger);
+
+        assertThat(overloadProtection.recordError()).isFalse();
+        assertThat(overloadProtection.recordError()).isFalse();
+        assertThat(overloadProtection.recordError()).isFalse();
+        verify(logger, never()).warn(anyString());
+
+        assertThat(overloadProtection.recordError()).isTrue();
+        assertThat(overloadProtection.isOverloaded()).isTrue();
+        verify(logger).warn("Handled 4 exceptions in the last 10s, switching to overload mode");
+    }
+
+    @Test
+    void errorsOutsideTheWindowAreNotCounted() {
+        AtomicLong clock = new AtomicLong();
+        OverloadProtection overloadProtection = new OverloadProtection(3, Duration.ofSeconds(10), 100, clock::get, mock(Logger.class));
+
+        overloadProtection.recordError();
+        overloadProtection.recordError();
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(5));
+        overloadProtection.recordError();
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(6));
+
+        assertThat(overloadProtection.recordError()).isFalse();
+    }
+
+    @Test
+    void overloadModeEndsWhenErrorRateDrops() {
+        AtomicLong clock = new AtomicLong();
+        Logger logger = mock(Logger.class);
+        OverloadProtection overloadProtection = new OverloadProtection(3, Duration.ofSeconds(10), 100, clock::get, logger);
+        for (int i = 0; i < 10; i++) {
+            overloadProtection.recordError();
+        }
+        assertThat(overloadProtection.isOverloaded()).isTrue();
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(11));
+
+        assertThat(overloadProtection.isOverloaded()).isFalse();
+        verify(logger).warn("Handled 0 exceptions in the last 10s, leaving overload mode (0 exceptions were not logged)");
+    }
+
+    @Test
+    void loggingIsSampled() {
+        OverloadProtection overloadProtection = new OverloadProtection(3, Duration.ofSeconds(10), 3, () -> 0L, mock(Logger.class));
+
+        assertThat(overloadProtection.shouldLog()).isTrue();
+        assertThat(overloadProtection.shouldLog()).isFalse();
+        assertThat(overloadProtection.shouldLog()).isFalse();
+        assertThat(overloadProtection.shouldLog()).isTrue();
+    }
+}
@@ -0,0 +1,58 @@
+package io.github.wimdeblauwe.errorhandlingspringbootstarter;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OverrideIndexTest {
+
+    @Test
+    void codeAndMessageAreResolvedTogether() {
+        ErrorHandlingProperties properties = new ErrorHandlingProperties();
+        properties.getCodes().put("NotBlank", "REQUIRED");
+        properties.getMessages().put("NotBlank", "Required value");
+
+        OverrideIndex.Entry entry = OverrideIndex.of(properties).get("NotBlank");
+
+        assertThat(entry.getCode()).isEqualTo("REQUIRED");
+        assertThat(entry.getMessage()).isEqualTo("Required value");
+    }
+
+    @Test
+    void fieldSpecificOverrideTakesPrecedence() {
+        ErrorHandlingProperties properties = new ErrorHandlingProperties();
+        properties.getCodes().put("NotBlank", "REQUIRED");
+        properties.getCodes().put("address.street.NotBlank", "STREET_REQUIRED");
+        properties.getMessages().put("NotBlank", "Required value");
+
+        OverrideIndex index = OverrideIndex.of(properties);
+
+        OverrideIndex.Entry entry = index.get("address.street", "NotBlank");
+        assertThat(entry.getCode()).isEqualTo("STREET_REQUIRED");
+        assertThat(entry.getMessage()).isEqualTo("Required value");
+
+        entry = index.get("name", "NotBlank");
+        assertThat(entry.getCode()).isEqualTo("REQUIRED");
+    }
+
+    @Test
+    void noEntryWithoutOverrides() {
+        OverrideIndex index = OverrideIndex.of(new ErrorHandlingProperties());
+
+        assertThat(index.get("NotBlank")).isNull();
+        assertThat(index.get("name", "NotBlank")).isNull();
+        assertThat(index.hasIndexedKey()).isFalse();
+    }
+
+    @Test
+    void indexedKeyIsDetected() {
+        ErrorHandlingProperties properties = new ErrorHandlingProperties();
+        properties.getMessages().put("rows[0].name.Size", "First row name is too long");
+
+        OverrideIndex index = OverrideIndex.of(properties);
+
+        assertThat(index.hasIndexedKey()).isTrue();
+        assertThat(index.get("rows[0].name", "Size").getMessage()).isEqualTo("First row name is too long");
+        assertThat(index.get("rows[1].name", "Size")).isNull();
+    }
+}
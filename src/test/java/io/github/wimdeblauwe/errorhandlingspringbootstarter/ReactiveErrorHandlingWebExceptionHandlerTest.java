@@ -0,0 +1,99 @@
+package io.github.wimdeblauwe.errorhandlingspringbootstarter;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.security.reactive.ReactiveSecurityAutoConfiguration;
+import org.springframework.boot.autoconfigure.security.reactive.ReactiveUserDetailsServiceAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+@WebFluxTest(excludeAutoConfiguration = {ReactiveSecurityAutoConfiguration.class,
+        ReactiveUserDetailsServiceAutoConfiguration.class})
+@ContextConfiguration(classes = {ReactiveErrorHandlingConfiguration.class,
+        ReactiveErrorHandlingWebExceptionHandlerTest.TestController.class})
+class ReactiveErrorHandlingWebExceptionHandlerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Test
+    void testAnnotatedException() {
+        webTestClient.get()
+                     .uri("/test/reactive/user-not-found")
+                     .exchange()
+                     .expectStatus().isNotFound()
+                     .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                     .expectBody()
+                     .jsonPath("code").isEqualTo("USER_NOT_FOUND")
+                     .jsonPath("message").isEqualTo("Could not find user with id 123");
+    }
+
+    @Test
+    void testErrorSignal() {
+        webTestClient.get()
+                     .uri("/test/reactive/error-signal")
+                     .exchange()
+                     .expectStatus().isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR)
+                     .expectBody()
+                     .jsonPath("code").isEqualTo("ILLEGAL_STATE")
+                     .jsonPath("message").isEqualTo("Something went wrong");
+    }
+
+    @Test
+    void testExceptionWithSpecificHandler() {
+        webTestClient.get()
+                     .uri("/test/reactive/access-denied")
+                     .exchange()
+                     .expectStatus().isForbidden()
+                     .expectBody()
+                     .jsonPath("code").isEqualTo("ACCESS_DENIED")
+                     .jsonPath("message").isEqualTo("Fake access denied");
+    }
+
+    @Test
+    void testHtmlRequestIsLeftToSpringBoot() {
+        webTestClient.get()
+                     .uri("/test/reactive/user-not-found")
+                     .accept(MediaType.TEXT_HTML)
+                     .exchange()
+                     .expectStatus().isNotFound()
+                     .expectHeader().contentTypeCompatibleWith(MediaType.TEXT_HTML);
+    }
+
+    @RestController
+    @RequestMapping("/test/reactive")
+    public static class TestController {
+
+        @GetMapping("/user-not-found")
+        public Mono<String> throwUserNotFound() {
+            throw new UserNotFoundException("Could not find user with id 123");
+        }
+
+        @GetMapping("/error-signal")
+        public Mono<String> errorSignal() {
+            return Mono.error(new IllegalStateException("Something went wrong"));
+        }
+
+        @GetMapping("/access-denied")
+        public Mono<String> throwAccessDenied() {
+            return Mono.error(new AccessDeniedException("Fake access denied"));
+        }
+    }
+
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    @ResponseErrorCode("USER_NOT_FOUND")
+    public static class UserNotFoundException extends RuntimeException {
+        public UserNotFoundException(String message) {
+            super(message);
+        }
+    }
+}
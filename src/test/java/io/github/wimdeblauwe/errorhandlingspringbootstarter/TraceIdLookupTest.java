@@ -0,0 +1,66 @@
+package io.github.wimdeblauwe.errorhandlingspringbootstarter;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TraceIdLookupTest {
+
+    @AfterEach
+    void clearMdc() {
+        MDC.clear();
+    }
+
+    @Test
+    void noTraceIdWhenDisabled() {
+        TraceIdLookup lookup = new TraceIdLookup(new ErrorHandlingProperties());
+        MDC.put("traceId", "4bf92f3577b34da6");
+
+        assertThat(lookup.getTraceId()).isNull();
+    }
+
+    @Test
+    void firstConfiguredKeyInMdcIsUsed() {
+        ErrorHandlingProperties properties = createProperties();
+        TraceIdLookup lookup = new TraceIdLookup(properties);
+        MDC.put("X-B3-TraceId", "80f198ee56343ba8");
+
+        assertThat(lookup.getTraceId()).isEqualTo("80f198ee56343ba8");
+
+        MDC.put("traceId", "4bf92f3577b34da6");
+
+        assertThat(lookup.getTraceId()).isEqualTo("4bf92f3577b34da6");
+    }
+
+    @Test
+    void traceIdIsTakenFromTraceparent() {
+        ErrorHandlingProperties properties = createProperties();
+        properties.getTraceId().setMdcKeys(Collections.singletonList("traceparent"));
+        TraceIdLookup lookup = new TraceIdLookup(properties);
+        MDC.put("traceparent", "00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01");
+
+        assertThat(lookup.getTraceId()).isEqualTo("4bf92f3577b34da6a3ce929d0e0e4736");
+    }
+
+    @Test
+    void changedKeysAreUsed() {
+        ErrorHandlingProperties properties = createProperties();
+        TraceIdLookup lookup = new TraceIdLookup(properties);
+        MDC.put("correlationId", "abc-123");
+        assertThat(lookup.getTraceId()).isNull();
+
+        properties.getTraceId().setMdcKeys(Collections.singletonList("correlationId"));
+
+        assertThat(lookup.getTraceId()).isEqualTo("abc-123");
+    }
+
+    private static ErrorHandlingProperties createProperties() {
+        ErrorHandlingProperties properties = new ErrorHandlingProperties();
+        properties.getTraceId().setEnabled(true);
+        return properties;
+    }
+}
@@ -1,6 +1,8 @@
 package io.github.wimdeblauwe.errorhandlingspringbootstarter.handler;
 
 
+import io.github.wimdeblauwe.errorhandlingspringbootstarter.ApiErrorResponse;
+import io.github.wimdeblauwe.errorhandlingspringbootstarter.ApiFieldError;
 import io.github.wimdeblauwe.errorhandlingspringbootstarter.ErrorHandlingConfiguration;
 import io.github.wimdeblauwe.errorhandlingspringbootstarter.ErrorHandlingProperties;
 import org.hamcrest.Matchers;
@@ -27,8 +29,11 @@ import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -220,6 +225,61 @@ class ConstraintViolationApiExceptionHandlerTest {
         ;
     }
 
+    @Test
+    void testViolationsOfListElements() {
+        ErrorHandlingProperties properties = new ErrorHandlingProperties();
+        properties.getCodes().put("NotNull", "REQUIRED_NOT_NULL");
+        ConstraintViolationApiExceptionHandler handler = new ConstraintViolationApiExceptionHandler(properties);
+
+        ApiErrorResponse response = handler.handle(validate(new TestBulkRequestBody(3)));
+
+        assertThat(response.getFieldErrors())
+                .extracting(ApiFieldError::getProperty)
+                .containsExactlyInAnyOrder("rows[0].value", "rows[1].value", "rows[2].value");
+        assertThat(response.getFieldErrors())
+                .extracting(ApiFieldError::getCode)
+                .containsOnly("REQUIRED_NOT_NULL");
+    }
+
+    @Test
+    void testMessageOverrideForSpecificListElement() {
+        ErrorHandlingProperties properties = new ErrorHandlingProperties();
+        ConstraintViolationApiExceptionHandler handler = new ConstraintViolationApiExceptionHandler(properties);
+        handler.handle(validate(new TestBulkRequestBody(3)));
+
+        properties.getMessages().put("rows[1].value.NotNull", "second row requires a value");
+        ApiErrorResponse response = handler.handle(validate(new TestBulkRequestBody(3)));
+
+        assertThat(response.getFieldErrors())
+                .filteredOn(fieldError -> fieldError.getProperty().equals("rows[1].value"))
+                .extracting(ApiFieldError::getMessage)
+                .containsExactly("second row requires a value");
+        assertThat(response.getFieldErrors())
+                .filteredOn(fieldError -> !fieldError.getProperty().equals("rows[1].value"))
+                .extracting(ApiFieldError::getMessage)
+                .containsOnly("must not be null");
+    }
+
+    @Test
+    void testMaxFieldErrors() {
+        ErrorHandlingProperties properties = new ErrorHandlingProperties();
+        properties.setMaxFieldErrors(10);
+        ConstraintViolationApiExceptionHandler handler = new ConstraintViolationApiExceptionHandler(properties);
+
+        ApiErrorResponse response = handler.handle(validate(new TestBulkRequestBody(1000)));
+
+        assertThat(response.getMessage()).isEqualTo("Validation failed. Error count: 1000");
+        assertThat(response.getFieldErrors()).hasSize(10);
+        assertThat(response.getProperties())
+                .containsEntry("truncated", true)
+                .containsEntry("errorCount", 1000);
+    }
+
+    private static ConstraintViolationException validate(Object object) {
+        Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+        return new ConstraintViolationException(validator.validate(object));
+    }
+
     @RestController
     @RequestMapping("/test/validation")
     public static class TestController {
@@ -266,6 +326,29 @@ class ConstraintViolationApiExceptionHandlerTest {
         }
     }
 
+    public static class TestBulkRequestBody {
+        @Valid
+        private final List<TestRow> rows = new ArrayList<>();
+
+        TestBulkRequestBody(int numberOfRows) {
+            for (int i = 0; i < numberOfRows; i++) {
+                rows.add(new TestRow());
+            }
+        }
+
+        public List<TestRow> getRows() {
+            return rows;
+        }
+    }
+
+    public static class TestRow {
+        @NotNull
+        private String value;
+
+        public String getValue() {
+            return value;
+        }
+    }
 
     @Target(ElementType.TYPE)
     @Retention(RetentionPolicy.RUNTIME)
@@ -216,6 +216,57 @@ class MethodArgumentNotValidApiExceptionHandlerTest {
         ;
     }
 
+    @Test
+    @WithMockUser
+    void testMaxFieldErrors(@Autowired ErrorHandlingProperties properties) throws Exception {
+        properties.setMaxFieldErrors(1);
+        mockMvc.perform(post("/test/validation")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"value2\": \"\"}")
+                                .with(csrf()))
+               .andExpect(status().isBadRequest())
+               .andExpect(jsonPath("code").value("VALIDATION_FAILED"))
+               .andExpect(jsonPath("message").value("Validation failed for object='testRequestBody'. Error count: 3"))
+               .andExpect(jsonPath("fieldErrors", hasSize(1)))
+               .andExpect(jsonPath("globalErrors", hasSize(1)))
+               .andExpect(jsonPath("truncated").value(true))
+               .andExpect(jsonPath("errorCount").value(3))
+        ;
+    }
+
+    @Test
+    @WithMockUser
+    void testMaxGlobalErrors(@Autowired ErrorHandlingProperties properties) throws Exception {
+        properties.setMaxGlobalErrors(0);
+        mockMvc.perform(post("/test/validation")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"value2\": \"\"}")
+                                .with(csrf()))
+               .andExpect(status().isBadRequest())
+               .andExpect(jsonPath("fieldErrors", hasSize(2)))
+               .andExpect(jsonPath("globalErrors").doesNotExist())
+               .andExpect(jsonPath("truncated").value(true))
+               .andExpect(jsonPath("errorCount").value(3))
+        ;
+    }
+
+    @Test
+    @WithMockUser
+    void testNotTruncatedWithinLimits(@Autowired ErrorHandlingProperties properties) throws Exception {
+        properties.setMaxFieldErrors(2);
+        properties.setMaxGlobalErrors(1);
+        mockMvc.perform(post("/test/validation")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"value2\": \"\"}")
+                                .with(csrf()))
+               .andExpect(status().isBadRequest())
+               .andExpect(jsonPath("fieldErrors", hasSize(2)))
+               .andExpect(jsonPath("globalErrors", hasSize(1)))
+               .andExpect(jsonPath("truncated").doesNotExist())
+               .andExpect(jsonPath("errorCount").doesNotExist())
+        ;
+    }
+
     @RestController
     @RequestMapping("/test/validation")
     public static class TestController {
@@ -6,6 +6,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.authentication.AccountExpiredException;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.web.servlet.MockMvc;
@@ -45,6 +46,15 @@ class SpringSecurityApiExceptionHandlerTest {
         ;
     }
 
+    @Test
+    @WithMockUser
+    void testSubclassOfMappedException() throws Exception {
+        mockMvc.perform(get("/test/spring-security/custom-bad-credentials"))
+               .andExpect(status().isBadRequest())
+               .andExpect(jsonPath("message").value("Fake custom bad credentials"))
+        ;
+    }
+
     @RestController
     @RequestMapping("/test/spring-security")
     public static class TestController {
@@ -58,6 +68,17 @@ class SpringSecurityApiExceptionHandlerTest {
         public void throwAccountExpired() {
             throw new AccountExpiredException("Fake account expired");
         }
+
+        @GetMapping("/custom-bad-credentials")
+        public void throwCustomBadCredentials() {
+            throw new CustomBadCredentialsException("Fake custom bad credentials");
+        }
+    }
+
+    static class CustomBadCredentialsException extends BadCredentialsException {
+        CustomBadCredentialsException(String message) {
+            super(message);
+        }
     }
 
 }
@@ -0,0 +1,127 @@
+package io.github.wimdeblauwe.errorhandlingspringbootstarter.processor;
+
+import io.github.wimdeblauwe.errorhandlingspringbootstarter.ApiErrorResponse;
+import io.github.wimdeblauwe.errorhandlingspringbootstarter.ExceptionMetadata;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpStatus;
+
+import javax.tools.JavaCompiler;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExceptionMetadataProcessorTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void metadataIsGeneratedForAnnotatedException() throws Exception {
+        compile("UserNotFoundException",
+                "package com.example;\n" +
+                        "import io.github.wimdeblauwe.errorhandlingspringbootstarter.ResponseErrorCode;\n" +
+                        "import io.github.wimdeblauwe.errorhandlingspringbootstarter.ResponseErrorProperty;\n" +
+                        "import org.springframework.http.HttpStatus;\n" +
+                        "import org.springframework.web.bind.annotation.ResponseStatus;\n" +
+                        "@ResponseStatus(HttpStatus.NOT_FOUND)\n" +
+                        "@ResponseErrorCode(\"USER_NOT_FOUND\")\n" +
+                        "public class UserNotFoundException extends RuntimeException {\n" +
+                        "    @ResponseErrorProperty\n" +
+                        "    final String userId;\n" +
+                        "    public UserNotFoundException(String userId) {\n" +
+                        "        this.userId = userId;\n" +
+                        "    }\n" +
+                        "    @ResponseErrorProperty(value = \"retryable\", includeIfNull = true)\n" +
+                        "    public Boolean getRetry() {\n" +
+                        "        return null;\n" +
+                        "    }\n" +
+                        "    @ResponseErrorProperty\n" +
+                        "    public String getReason() {\n" +
+                        "        return null;\n" +
+                        "    }\n" +
+                        "}\n");
+
+        try (URLClassLoader classLoader = classLoader()) {
+            ExceptionMetadata metadata = (ExceptionMetadata) classLoader.loadClass("com.example.UserNotFoundException" + ExceptionMetadataProcessor.METADATA_SUFFIX).newInstance();
+            Class<?> exceptionClass = classLoader.loadClass("com.example.UserNotFoundException");
+            Throwable exception = (Throwable) exceptionClass.getConstructor(String.class).newInstance("123");
+
+            assertThat(metadata.getExceptionClass()).isEqualTo(exceptionClass);
+            assertThat(metadata.getResponseStatus()).isEqualTo(HttpStatus.NOT_FOUND);
+            assertThat(metadata.getResponseErrorCode()).isEqualTo("USER_NOT_FOUND");
+            assertThat(metadata.isResponseErrorPropertiesAccessible()).isTrue();
+            assertThat(metadata.hasResponseErrorProperties()).isTrue();
+
+            ApiErrorResponse response = new ApiErrorResponse(HttpStatus.NOT_FOUND, "USER_NOT_FOUND", null);
+            metadata.addResponseErrorProperties(exception, response);
+            assertThat(response.getProperties())
+                    .containsEntry("userId", "123")
+                    .containsEntry("retryable", null)
+                    .doesNotContainKey("reason");
+        }
+        assertThat(new String(Files.readAllBytes(tempDir.resolve("classes").resolve(ExceptionMetadataProcessor.SERVICE_FILE)), StandardCharsets.UTF_8))
+                .isEqualTo("com.example.UserNotFoundException_ExceptionMetadata\n");
+    }
+
+    @Test
+    void privateFieldIsNotAccessible() throws Exception {
+        compile("InvalidOrderException",
+                "package com.example;\n" +
+                        "import io.github.wimdeblauwe.errorhandlingspringbootstarter.ResponseErrorProperty;\n" +
+                        "public class InvalidOrderException extends RuntimeException {\n" +
+                        "    @ResponseErrorProperty\n" +
+                        "    private String orderId;\n" +
+                        "}\n");
+
+        try (URLClassLoader classLoader = classLoader()) {
+            ExceptionMetadata metadata = (ExceptionMetadata) classLoader.loadClass("com.example.InvalidOrderException" + ExceptionMetadataProcessor.METADATA_SUFFIX).newInstance();
+
+            assertThat(metadata.getResponseStatus()).isNull();
+            assertThat(metadata.getResponseErrorCode()).isNull();
+            assertThat(metadata.isResponseErrorPropertiesAccessible()).isFalse();
+        }
+    }
+
+    @Test
+    void literalIsEscaped() {
+        assertThat(ExceptionMetadataProcessor.literal("a\"b\\c\né")).isEqualTo("\"a\\\"b\\\\c\\n\\u00e9\"");
+    }
+
+    private void compile(String className,
+                         String source) throws IOException {
+        Path sourceFile = tempDir.resolve("src").resolve("com/example/" + className + ".java");
+        Files.createDirectories(sourceFile.getParent());
+        Files.write(sourceFile, source.getBytes(StandardCharsets.UTF_8));
+        Path classes = Files.createDirectories(tempDir.resolve("classes"));
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, StandardCharsets.UTF_8)) {
+            JavaCompiler.CompilationTask task = compiler.getTask(null,
+                                                                 fileManager,
+                                                                 null,
+                                                                 Arrays.asList("-classpath", System.getProperty("java.class.path"),
+                                                                               "-d", classes.toString(),
+                                                                               "-s", classes.toString()),
+                                                                 null,
+                                                                 fileManager.getJavaFileObjectsFromFiles(Collections.singletonList(sourceFile.toFile())));
+            task.setProcessors(Collections.singletonList(new ExceptionMetadataProcessor()));
+            assertThat(task.call()).isTrue();
+        }
+    }
+
+    private URLClassLoader classLoader() throws IOException {
+        File classes = tempDir.resolve("classes").toFile();
+        return new URLClassLoader(new URL[]{classes.toURI().toURL()}, getClass().getClassLoader());
+    }
+}